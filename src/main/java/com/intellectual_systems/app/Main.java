@@ -5,6 +5,11 @@
 
 package com.intellectual_systems.app;
 
+import java.util.Arrays;
+
+import com.intellectual_systems.command.CompileBankCommand;
+import com.intellectual_systems.command.FindDuplicatesCommand;
+import com.intellectual_systems.command.MergeBanksCommand;
 import com.intellectual_systems.controller.GameEngine;
 import com.intellectual_systems.controller.GameState;
 import com.intellectual_systems.controller.state.StartState;
@@ -17,16 +22,41 @@ public class Main {
     
 
     /**
-     * @param args the command line arguments
+     * @param args the command line arguments; "compile <source> <target>"
+     *             converts a question bank to .qbank and
+     *             "merge <source>... <target>" merges banks into one sorted
+     *             CSV and "duplicates <source>..." reports reworded copies,
+     *             instead of starting a game; "board <categories>" starts
+     *             a game dealing boards of that many categories sampled
+     *             from the bank instead of playing the whole bank
      */
     public static void main(String[] args) {
-        
+        if (args.length == 3 && args[0].equalsIgnoreCase("compile")) {
+            new CompileBankCommand(args[1], args[2]).execute();
+            return;
+        }
+        if (args.length >= 3 && args[0].equalsIgnoreCase("merge")) {
+            new MergeBanksCommand(Arrays.asList(args).subList(1, args.length - 1), args[args.length - 1]).execute();
+            return;
+        }
+        if (args.length >= 2 && args[0].equalsIgnoreCase("duplicates")) {
+            new FindDuplicatesCommand(Arrays.asList(args).subList(1, args.length)).execute();
+            return;
+        }
 
         GameState initialState = new StartState();
 
         GameEngine gameEngine = new GameEngine(initialState);
         ((StartState) initialState).setGameEngine(gameEngine);
+        if (args.length == 2 && args[0].equalsIgnoreCase("board")) {
+            try {
+                gameEngine.setBoardCategories(Integer.parseInt(args[1]));
+            } catch (NumberFormatException e) {
+                System.err.println("Invalid board size: " + args[1]);
+                return;
+            }
+        }
 
-        gameEngine.renderCurrentState();
+        gameEngine.run();
     }
 }
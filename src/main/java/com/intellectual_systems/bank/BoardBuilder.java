@@ -0,0 +1,160 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.intellectual_systems.bank;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.LongPredicate;
+
+import com.intellectual_systems.model.Category;
+import com.intellectual_systems.model.Question;
+
+/**
+ * Samples game boards from a large question pool. The pool is indexed
+ * once: for every category that can fill all value slots, the questions
+ * at each value are kept in their own array. A board then costs a few
+ * random draws per cell, independent of the pool size, and the same seed
+ * always gives the same board. Each question's {@link QuestionIds} id is
+ * computed up front, so checking a candidate against the players' seen
+ * sets is a bitmap lookup.
+ *
+ * @author Jonathan
+ */
+public class BoardBuilder {
+    private final int[] values;
+    private final String[] names;
+    // slots[category][valueIndex] holds every question for that cell
+    private final Question[][][] slots;
+    private final long[][][] ids;
+    private final boolean hasAlternatives;
+
+    /**
+     * Uses the values of the pool's first category as the board rows,
+     * as GameBoard always has.
+     */
+    public BoardBuilder(List<Category> pool) {
+        this(pool, valuesOf(pool.isEmpty() ? null : pool.get(0)));
+    }
+
+    public BoardBuilder(List<Category> pool, int[] values) {
+        this.values = values;
+        List<String> eligibleNames = new ArrayList<>();
+        List<Question[][]> eligibleSlots = new ArrayList<>();
+        boolean alternatives = false;
+        for (Category category : pool) {
+            TreeMap<Integer, List<Question>> byValue = new TreeMap<>();
+            for (Question question : category.getQuestions()) {
+                byValue.computeIfAbsent(question.getValue(), key -> new ArrayList<>()).add(question);
+            }
+            Question[][] cells = new Question[values.length][];
+            boolean complete = true;
+            for (int v = 0; v < values.length && complete; v++) {
+                List<Question> questions = byValue.get(values[v]);
+                if (questions == null) {
+                    complete = false;
+                } else {
+                    cells[v] = questions.toArray(new Question[0]);
+                    alternatives |= cells[v].length > 1;
+                }
+            }
+            if (complete) {
+                eligibleNames.add(category.getName());
+                eligibleSlots.add(cells);
+            }
+        }
+        this.names = eligibleNames.toArray(new String[0]);
+        this.slots = eligibleSlots.toArray(new Question[0][][]);
+        this.ids = new long[slots.length][values.length][];
+        for (int c = 0; c < slots.length; c++) {
+            for (int v = 0; v < values.length; v++) {
+                Question[] cell = slots[c][v];
+                ids[c][v] = new long[cell.length];
+                for (int q = 0; q < cell.length; q++) {
+                    ids[c][v][q] = QuestionIds.of(cell[q]);
+                }
+            }
+        }
+        this.hasAlternatives = alternatives;
+    }
+
+    /**
+     * Number of categories that have a question for every value slot.
+     */
+    public int getCategoryCount() {
+        return names.length;
+    }
+
+    /**
+     * True if a board of {@code categoryCount} categories would leave part
+     * of the pool unused, i.e. sampling actually chooses something.
+     */
+    public boolean isLargerThan(int categoryCount) {
+        return names.length > categoryCount || hasAlternatives;
+    }
+
+    /**
+     * Picks up to {@code categoryCount} distinct categories uniformly, in
+     * random order, and one question per value for each, in value order.
+     */
+    public List<Category> build(int categoryCount, long seed) {
+        return build(categoryCount, seed, id -> false);
+    }
+
+    /**
+     * As {@link #build(int, long)}, but each cell skips questions whose id
+     * is {@code seen} when the slot has an unseen alternative.
+     */
+    public List<Category> build(int categoryCount, long seed, LongPredicate seen) {
+        Random random = new Random(seed);
+        int count = Math.min(categoryCount, names.length);
+
+        // Floyd's algorithm: k distinct indexes in O(k) without touching the rest
+        Set<Integer> chosen = new HashSet<>();
+        List<Integer> order = new ArrayList<>(count);
+        for (int j = names.length - count; j < names.length; j++) {
+            int pick = random.nextInt(j + 1);
+            int index = chosen.contains(pick) ? j : pick;
+            chosen.add(index);
+            // Inserting at a random position shuffles the picks as they arrive
+            order.add(random.nextInt(order.size() + 1), index);
+        }
+
+        List<Category> board = new ArrayList<>(count);
+        for (int c : order) {
+            List<Question> questions = new ArrayList<>(values.length);
+            for (int v = 0; v < values.length; v++) {
+                questions.add(pick(slots[c][v], ids[c][v], random.nextInt(slots[c][v].length), seen));
+            }
+            board.add(new Category(names[c], questions));
+        }
+        return board;
+    }
+
+    /**
+     * The first unseen question from {@code start} on, wrapping around,
+     * or the one at {@code start} if all have been seen.
+     */
+    private static Question pick(Question[] cell, long[] cellIds, int start, LongPredicate seen) {
+        for (int i = 0; i < cell.length; i++) {
+            int q = (start + i) % cell.length;
+            if (!seen.test(cellIds[q])) {
+                return cell[q];
+            }
+        }
+        return cell[start];
+    }
+
+    private static int[] valuesOf(Category category) {
+        if (category == null) {
+            return new int[0];
+        }
+        return category.getQuestions().stream().mapToInt(Question::getValue).distinct().sorted().toArray();
+    }
+}
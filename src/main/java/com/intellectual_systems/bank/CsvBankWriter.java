@@ -0,0 +1,67 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.intellectual_systems.bank;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+
+import com.intellectual_systems.model.Question;
+import com.intellectual_systems.parser.QuestionVisitor;
+
+/**
+ * Writes questions as a CSV bank with the same columns CsvParser reads.
+ * Questions with fewer than four choices leave the remaining option cells
+ * empty, which CsvParser reads back as no choice. Questions with more than
+ * four choices cannot be written and are rejected.
+ *
+ * @author Jonathan
+ */
+public class CsvBankWriter implements QuestionVisitor, Closeable {
+    private static final String[] HEADER = {"Category", "Value", "Question", "OptionA", "OptionB", "OptionC", "OptionD", "CorrectAnswer"};
+    private static final int OPTION_COUNT = 4;
+
+    private final CSVPrinter printer;
+
+    public CsvBankWriter(String filePath) throws IOException {
+        this.printer = new CSVPrinter(new BufferedWriter(new FileWriter(filePath, StandardCharsets.UTF_8), 1 << 16),
+                CSVFormat.EXCEL.builder().setHeader(HEADER).get());
+    }
+
+    @Override
+    public void visit(Question question) {
+        Object[] row = new Object[HEADER.length];
+        row[0] = question.getCategory();
+        row[1] = question.getValue();
+        row[2] = question.getQuestionText();
+        List<String> choices = question.getChoices();
+        if (choices.size() > OPTION_COUNT) {
+            throw new IllegalArgumentException("\"" + question.getQuestionText() + "\" in " + question.getCategory()
+                    + " has " + choices.size() + " choices; a CSV bank holds at most " + OPTION_COUNT);
+        }
+        for (int i = 0; i < choices.size(); i++) {
+            row[3 + i] = choices.get(i);
+        }
+        row[7] = question.getAnswer();
+        try {
+            printer.printRecord(row);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        printer.close();
+    }
+}
@@ -0,0 +1,311 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.intellectual_systems.bank;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import com.intellectual_systems.model.Question;
+import com.intellectual_systems.parser.QuestionVisitor;
+
+/**
+ * External merge sort for question banks that do not fit in memory.
+ * Questions are buffered up to a byte budget, sorted and spilled to run
+ * files, then the runs are k-way merged. Exact duplicates (every field
+ * equal) are dropped during both the spill and the merge.
+ *
+ * @author Jonathan
+ */
+public class ExternalBankSorter implements QuestionVisitor, Closeable {
+    /** Canonical bank order: category, value, question, then the rest of the fields. */
+    public static final Comparator<Question> ORDER = Comparator
+            .comparing((Question q) -> text(q.getCategory()))
+            .thenComparingInt(Question::getValue)
+            .thenComparing(q -> text(q.getQuestionText()))
+            .thenComparing(q -> text(q.getAnswer()))
+            .thenComparing(Question::getChoices, ExternalBankSorter::compareChoices);
+
+    private static final int MAX_FAN_IN = 64;
+
+    private final File spillDirectory;
+    private final long runBudget;
+    private final List<File> runs = new ArrayList<>();
+    private final ArrayList<Question> buffer = new ArrayList<>();
+    private long bufferedBytes = 0;
+
+    private long inputCount = 0;
+    private long outputCount = 0;
+
+    public ExternalBankSorter() {
+        this(new File(System.getProperty("java.io.tmpdir")), Runtime.getRuntime().maxMemory() / 8);
+    }
+
+    /**
+     * @param runBudget approximate heap, in bytes, to fill before spilling a run
+     */
+    public ExternalBankSorter(File spillDirectory, long runBudget) {
+        this.spillDirectory = spillDirectory;
+        this.runBudget = runBudget;
+    }
+
+    @Override
+    public void visit(Question question) {
+        inputCount++;
+        buffer.add(question);
+        bufferedBytes += estimateBytes(question);
+        if (bufferedBytes >= runBudget) {
+            try {
+                spill();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Streams every distinct question to {@code out} in {@link #ORDER}.
+     * Spill files are deleted afterwards.
+     */
+    public void finish(QuestionVisitor out) throws IOException {
+        try {
+            if (runs.isEmpty()) {
+                // Everything fit in one run: no need to touch the disk
+                buffer.sort(ORDER);
+                Question previous = null;
+                for (Question question : buffer) {
+                    if (previous == null || ORDER.compare(previous, question) != 0) {
+                        out.visit(question);
+                        outputCount++;
+                    }
+                    previous = question;
+                }
+                buffer.clear();
+                return;
+            }
+            spill();
+            while (runs.size() > MAX_FAN_IN) {
+                List<File> group = new ArrayList<>(runs.subList(0, MAX_FAN_IN));
+                runs.subList(0, MAX_FAN_IN).clear();
+                File merged = newRunFile();
+                try (RunWriter writer = new RunWriter(merged)) {
+                    merge(group, writer::write);
+                }
+                for (File run : group) {
+                    run.delete();
+                }
+                runs.add(merged);
+            }
+            merge(runs, question -> {
+                out.visit(question);
+                outputCount++;
+            });
+        } finally {
+            close();
+        }
+    }
+
+    public long getInputCount() {
+        return inputCount;
+    }
+
+    public long getOutputCount() {
+        return outputCount;
+    }
+
+    public long getDuplicateCount() {
+        return inputCount - outputCount;
+    }
+
+    public int getRunCount() {
+        return runs.size();
+    }
+
+    /**
+     * Deletes any spill files left behind, e.g. after a failed merge.
+     */
+    @Override
+    public void close() {
+        for (File run : runs) {
+            run.delete();
+        }
+        runs.clear();
+        buffer.clear();
+        bufferedBytes = 0;
+    }
+
+    private void spill() throws IOException {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        buffer.sort(ORDER);
+        File run = newRunFile();
+        runs.add(run);
+        try (RunWriter writer = new RunWriter(run)) {
+            Question previous = null;
+            for (Question question : buffer) {
+                if (previous == null || ORDER.compare(previous, question) != 0) {
+                    writer.write(question);
+                }
+                previous = question;
+            }
+        }
+        buffer.clear();
+        bufferedBytes = 0;
+    }
+
+    private File newRunFile() throws IOException {
+        if (!spillDirectory.isDirectory() && !spillDirectory.mkdirs()) {
+            throw new IOException("Cannot create spill directory " + spillDirectory);
+        }
+        File run = File.createTempFile("bank_run", ".tmp", spillDirectory);
+        run.deleteOnExit();
+        return run;
+    }
+
+    private static void merge(List<File> files, QuestionVisitor out) throws IOException {
+        PriorityQueue<RunReader> heads = new PriorityQueue<>(Math.max(1, files.size()), (a, b) -> ORDER.compare(a.head, b.head));
+        List<RunReader> readers = new ArrayList<>(files.size());
+        try {
+            for (File file : files) {
+                RunReader reader = new RunReader(file);
+                readers.add(reader);
+                if (reader.advance()) {
+                    heads.add(reader);
+                }
+            }
+            Question previous = null;
+            while (!heads.isEmpty()) {
+                RunReader reader = heads.poll();
+                Question question = reader.head;
+                if (previous == null || ORDER.compare(previous, question) != 0) {
+                    out.visit(question);
+                    previous = question;
+                }
+                if (reader.advance()) {
+                    heads.add(reader);
+                }
+            }
+        } finally {
+            for (RunReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    private static int compareChoices(List<String> a, List<String> b) {
+        int shared = Math.min(a.size(), b.size());
+        for (int i = 0; i < shared; i++) {
+            int cmp = text(a.get(i)).compareTo(text(b.get(i)));
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(a.size(), b.size());
+    }
+
+    private static String text(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static long estimateBytes(Question question) {
+        long bytes = 96 + 2L * text(question.getQuestionText()).length() + 2L * text(question.getAnswer()).length();
+        for (String choice : question.getChoices()) {
+            bytes += 48 + 2L * text(choice).length();
+        }
+        return bytes;
+    }
+
+    /**
+     * Run file record: category, value, question, choice count, choices,
+     * answer. Strings are length-prefixed UTF-8, as in the .qbank blobs.
+     */
+    private static class RunWriter implements Closeable {
+        private final DataOutputStream out;
+
+        RunWriter(File file) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+        }
+
+        void write(Question question) {
+            try {
+                writeString(question.getCategory());
+                out.writeInt(question.getValue());
+                writeString(question.getQuestionText());
+                out.writeInt(question.getChoices().size());
+                for (String choice : question.getChoices()) {
+                    writeString(choice);
+                }
+                writeString(question.getAnswer());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void writeString(String value) throws IOException {
+            byte[] bytes = text(value).getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    private static class RunReader implements Closeable {
+        private final DataInputStream in;
+        private Question head;
+
+        RunReader(File file) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16));
+        }
+
+        boolean advance() throws IOException {
+            String category;
+            try {
+                category = readString();
+            } catch (EOFException e) {
+                head = null;
+                return false;
+            }
+            int value = in.readInt();
+            String questionText = readString();
+            int choiceCount = in.readInt();
+            ArrayList<String> choices = new ArrayList<>(choiceCount);
+            for (int i = 0; i < choiceCount; i++) {
+                choices.add(readString());
+            }
+            head = new Question(questionText, choices, readString(), category, value);
+            return true;
+        }
+
+        private String readString() throws IOException {
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.intellectual_systems.bank;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import com.intellectual_systems.model.Question;
+import com.intellectual_systems.parser.QuestionVisitor;
+
+/**
+ * Finds reworded copies of questions with MinHash and locality-sensitive
+ * hashing. Each question's text and choices are cut into character
+ * shingles and summarised by a MinHash signature; questions whose
+ * signatures agree on a whole band become candidates, and candidates
+ * whose estimated Jaccard similarity reaches the threshold are clustered.
+ * Work grows roughly linearly with the number of questions.
+ *
+ * @author Jonathan
+ */
+public class NearDuplicateDetector implements QuestionVisitor {
+    private static final int SHINGLE_LENGTH = 5;
+
+    private final int bands;
+    private final int rows;
+    private final double threshold;
+    private final long[] seeds;
+
+    private final List<Question> questions = new ArrayList<>();
+    private final List<String> sources = new ArrayList<>();
+    private final List<Integer> sourceStarts = new ArrayList<>();
+
+    public NearDuplicateDetector() {
+        this(20, 3, 0.5);
+    }
+
+    /**
+     * @param bands     number of LSH bands; more bands find fainter matches
+     * @param rows      signature rows per band; more rows mean fewer false candidates
+     * @param threshold minimum estimated Jaccard similarity to report
+     */
+    public NearDuplicateDetector(int bands, int rows, double threshold) {
+        this.bands = bands;
+        this.rows = rows;
+        this.threshold = threshold;
+        this.seeds = new long[bands * rows];
+        SplittableRandom random = new SplittableRandom(0x51424E4BL);
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = random.nextLong();
+        }
+    }
+
+    /**
+     * Labels the questions visited from now on, e.g. with their file name.
+     */
+    public void beginSource(String source) {
+        sources.add(source);
+        sourceStarts.add(questions.size());
+    }
+
+    @Override
+    public void visit(Question question) {
+        questions.add(question);
+    }
+
+    public int getQuestionCount() {
+        return questions.size();
+    }
+
+    /**
+     * Returns clusters of two or more near-duplicate questions, each in
+     * visiting order, ordered by their first member.
+     */
+    public List<List<Match>> findClusters() {
+        int n = questions.size();
+        int[][] signatures = new int[n][];
+        int[] bandKeys = new int[n * bands];
+        IntStream.range(0, n).parallel().forEach(i -> {
+            int[] signature = signature(questions.get(i));
+            signatures[i] = signature;
+            for (int b = 0; b < bands; b++) {
+                bandKeys[i * bands + b] = bandKey(signature, b);
+            }
+        });
+
+        int[] parent = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+        }
+        long[] bucket = new long[n];
+        for (int b = 0; b < bands; b++) {
+            // Sorting (key, index) pairs groups each bucket without a hash map of lists
+            for (int i = 0; i < n; i++) {
+                bucket[i] = (long) bandKeys[i * bands + b] << 32 | i;
+            }
+            Arrays.sort(bucket);
+            int start = 0;
+            while (start < n) {
+                int end = start + 1;
+                while (end < n && bucket[end] >>> 32 == bucket[start] >>> 32) {
+                    end++;
+                }
+                if (end - start > 1) {
+                    joinBucket(bucket, start, end, signatures, parent);
+                }
+                start = end;
+            }
+        }
+
+        // Roots are the smallest index in their cluster, so groups come out in visiting order
+        int[] sizes = new int[n];
+        for (int i = 0; i < n; i++) {
+            sizes[find(parent, i)]++;
+        }
+        LinkedHashMap<Integer, List<Match>> clusters = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            int root = find(parent, i);
+            if (sizes[root] > 1) {
+                clusters.computeIfAbsent(root, key -> new ArrayList<>()).add(new Match(questions.get(i), sourceOf(i)));
+            }
+        }
+        return new ArrayList<>(clusters.values());
+    }
+
+    /**
+     * Compares every bucket member with the bucket's first member only, so
+     * a large bucket of identical questions costs linear, not quadratic, work.
+     */
+    private void joinBucket(long[] bucket, int start, int end, int[][] signatures, int[] parent) {
+        int head = (int) bucket[start];
+        for (int k = start + 1; k < end; k++) {
+            int other = (int) bucket[k];
+            if (find(parent, head) == find(parent, other)) {
+                continue;
+            }
+            if (similarity(signatures[head], signatures[other]) >= threshold) {
+                union(parent, head, other);
+            }
+        }
+    }
+
+    /**
+     * Fraction of matching signature slots, an estimate of the Jaccard
+     * similarity of the two shingle sets.
+     */
+    static double similarity(int[] a, int[] b) {
+        int same = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                same++;
+            }
+        }
+        return (double) same / a.length;
+    }
+
+    int[] signature(Question question) {
+        int[] signature = new int[seeds.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        String text = normalize(question);
+        int last = Math.max(1, text.length() - SHINGLE_LENGTH + 1);
+        for (int s = 0; s < last; s++) {
+            long shingle = 0;
+            for (int c = s; c < Math.min(text.length(), s + SHINGLE_LENGTH); c++) {
+                shingle = shingle * 31 + text.charAt(c);
+            }
+            for (int i = 0; i < seeds.length; i++) {
+                int hash = (int) (mix(shingle ^ seeds[i]) >>> 33);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    private int bandKey(int[] signature, int band) {
+        long key = band;
+        for (int r = band * rows; r < (band + 1) * rows; r++) {
+            key = mix(key * 31 + signature[r]);
+        }
+        return (int) key;
+    }
+
+    /**
+     * Lower-cased text and choices with punctuation folded to single spaces,
+     * so trivial edits do not change the shingles.
+     */
+    private static String normalize(Question question) {
+        StringBuilder raw = new StringBuilder();
+        raw.append(question.getQuestionText());
+        for (String choice : question.getChoices()) {
+            raw.append(' ').append(choice);
+        }
+        StringBuilder text = new StringBuilder(raw.length());
+        boolean space = true;
+        for (int i = 0; i < raw.length(); i++) {
+            char c = Character.toLowerCase(raw.charAt(i));
+            if (Character.isLetterOrDigit(c)) {
+                text.append(c);
+                space = false;
+            } else if (!space) {
+                text.append(' ');
+                space = true;
+            }
+        }
+        return text.toString().trim();
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        // Keep the earliest question as the root so clusters list in visiting order
+        if (rootA < rootB) {
+            parent[rootB] = rootA;
+        } else if (rootB < rootA) {
+            parent[rootA] = rootB;
+        }
+    }
+
+    private String sourceOf(int index) {
+        for (int s = sourceStarts.size() - 1; s >= 0; s--) {
+            if (sourceStarts.get(s) <= index) {
+                return sources.get(s);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A question in a cluster, with the source it was read from.
+     */
+    public static class Match {
+        private final Question question;
+        private final String source;
+
+        Match(Question question, String source) {
+            this.question = question;
+            this.source = source;
+        }
+
+        public Question getQuestion() {
+            return question;
+        }
+
+        public String getSource() {
+            return source;
+        }
+    }
+}
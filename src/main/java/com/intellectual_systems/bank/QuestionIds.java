@@ -0,0 +1,41 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.intellectual_systems.bank;
+
+import com.intellectual_systems.model.Question;
+
+/**
+ * Stable 64-bit ids for questions, the same across runs, bank files and
+ * formats. The high 32 bits hash the category and the low 32 bits hash
+ * the value and text, so one category's questions share a bitmap bucket
+ * and sit together in its sorted array.
+ * Two questions in a category only share an id if their 32-bit hashes
+ * collide; the cost then is that one may be treated as already seen.
+ *
+ * @author Jonathan
+ */
+public final class QuestionIds {
+
+    private QuestionIds() {
+    }
+
+    public static long of(Question question) {
+        int category = fnv1a(question.getCategory(), 0x811C9DC5);
+        int text = fnv1a(question.getQuestionText(), fnv1a(Integer.toString(question.getValue()), 0x811C9DC5) * 0x01000193);
+        return ((long) category << 32) | (text & 0xFFFFFFFFL);
+    }
+
+    private static int fnv1a(String s, int hash) {
+        if (s == null) {
+            return hash;
+        }
+        for (int i = 0; i < s.length(); i++) {
+            hash ^= s.charAt(i);
+            hash *= 0x01000193;
+        }
+        return hash;
+    }
+}
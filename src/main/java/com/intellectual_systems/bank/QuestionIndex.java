@@ -0,0 +1,207 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.intellectual_systems.bank;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.intellectual_systems.model.Category;
+import com.intellectual_systems.model.Question;
+
+/**
+ * In-memory inverted index over question text, choices and category
+ * names. Questions are numbered in category order and each term maps to a
+ * sorted int array of those ids. Terms are kept sorted, so a prefix is a
+ * binary-searched range. The index is a snapshot; rebuild it after the
+ * categories change.
+ *
+ * @author Jonathan
+ */
+public class QuestionIndex {
+    private final Question[] questions;
+    private final String[] terms;
+    private final int[][] postings;
+
+    public QuestionIndex(List<Category> categories) {
+        List<Question> all = new ArrayList<>();
+        for (Category category : categories) {
+            all.addAll(category.getQuestions());
+        }
+        this.questions = all.toArray(new Question[0]);
+
+        Map<String, Postings> building = new HashMap<>();
+        for (int id = 0; id < questions.length; id++) {
+            Question question = questions[id];
+            addTerms(building, question.getQuestionText(), id);
+            addTerms(building, question.getCategory(), id);
+            for (String choice : question.getChoices()) {
+                addTerms(building, choice, id);
+            }
+        }
+
+        this.terms = building.keySet().toArray(new String[0]);
+        Arrays.sort(terms);
+        this.postings = new int[terms.length][];
+        for (int i = 0; i < terms.length; i++) {
+            Postings list = building.get(terms[i]);
+            postings[i] = Arrays.copyOf(list.ids, list.size);
+        }
+    }
+
+    public int size() {
+        return questions.length;
+    }
+
+    public int getTermCount() {
+        return terms.length;
+    }
+
+    public Question getQuestion(int id) {
+        return questions[id];
+    }
+
+    /**
+     * Questions containing every word of the query, in id order. A word
+     * ending in '*' matches any term starting with it.
+     */
+    public List<Question> search(String query) {
+        int[] ids = find(query);
+        List<Question> results = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            results.add(questions[id]);
+        }
+        return results;
+    }
+
+    /**
+     * Ids of the questions matching {@link #search(String)}.
+     */
+    public int[] find(String query) {
+        List<int[]> lists = new ArrayList<>();
+        for (String word : query.trim().split("\\s+")) {
+            boolean prefix = word.endsWith("*");
+            List<String> tokens = tokenize(prefix ? word.substring(0, word.length() - 1) : word);
+            for (int t = 0; t < tokens.size(); t++) {
+                // Only the last token of a starred word is a prefix, e.g. "c++*" -> "c*"
+                lists.add(prefix && t == tokens.size() - 1 ? prefixPostings(tokens.get(t)) : postings(tokens.get(t)));
+            }
+        }
+        if (lists.isEmpty()) {
+            return new int[0];
+        }
+        lists.sort((a, b) -> Integer.compare(a.length, b.length));
+        int[] result = lists.get(0);
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = intersect(result, lists.get(i));
+        }
+        return result;
+    }
+
+    private int[] postings(String term) {
+        int position = Arrays.binarySearch(terms, term);
+        return position >= 0 ? postings[position] : new int[0];
+    }
+
+    private int[] prefixPostings(String prefix) {
+        int from = Arrays.binarySearch(terms, prefix);
+        if (from < 0) {
+            from = -from - 1;
+        }
+        int to = from;
+        while (to < terms.length && terms[to].startsWith(prefix)) {
+            to++;
+        }
+        if (to - from == 1) {
+            return postings[from];
+        }
+        BitSet union = new BitSet(questions.length);
+        for (int i = from; i < to; i++) {
+            for (int id : postings[i]) {
+                union.set(id);
+            }
+        }
+        return union.stream().toArray();
+    }
+
+    /**
+     * Walks the shorter list and gallops through the longer one.
+     */
+    private static int[] intersect(int[] shorter, int[] longer) {
+        int[] result = new int[shorter.length];
+        int count = 0;
+        int position = 0;
+        for (int id : shorter) {
+            int step = 1;
+            int high = position;
+            while (high < longer.length && longer[high] < id) {
+                position = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            position = Arrays.binarySearch(longer, position, Math.min(high + 1, longer.length), id);
+            if (position >= 0) {
+                result[count++] = id;
+                position++;
+            } else {
+                position = -position - 1;
+            }
+            if (position >= longer.length) {
+                break;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static void addTerms(Map<String, Postings> building, String text, int id) {
+        for (String term : tokenize(text)) {
+            building.computeIfAbsent(term, key -> new Postings()).add(id);
+        }
+    }
+
+    /**
+     * Lower-cased runs of letters and digits.
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean word = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase());
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Growable int array; ids arrive in increasing order, so a repeat of
+     * the last id is the same question using the term twice.
+     */
+    private static class Postings {
+        int[] ids = new int[4];
+        int size = 0;
+
+        void add(int id) {
+            if (size > 0 && ids[size - 1] == id) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.intellectual_systems.bank;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Set;
+
+import com.intellectual_systems.model.Question;
+import com.intellectual_systems.util.Roaring64Bitmap;
+
+/**
+ * Which questions each player has been asked, across games. Every player
+ * has one Roaring64Bitmap of question ids (see {@link QuestionIds}), loaded
+ * on first use and saved as its own file under the store's directory.
+ * Marking only changes the bitmap in memory; {@link #saveAll()} writes
+ * the players marked since the last save.
+ * Player names are matched case-insensitively, as in player setup.
+ *
+ * @author Jonathan
+ */
+public class SeenQuestionStore {
+    // Leads every file; files from before 64-bit ids lack it and are not read
+    private static final int FORMAT = 0x5345454E; // "SEEN"
+
+    private final File directory;
+    private final HashMap<String, Roaring64Bitmap> players = new HashMap<>();
+    private final Set<String> unsaved = new HashSet<>();
+
+    public SeenQuestionStore(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * The player's bitmap, read from disk the first time it is asked for.
+     */
+    public Roaring64Bitmap get(String player) {
+        return players.computeIfAbsent(key(player), this::load);
+    }
+
+    public boolean hasSeen(String player, Question question) {
+        return get(player).contains(QuestionIds.of(question));
+    }
+
+    public void markSeen(String player, Question question) {
+        if (get(player).add(QuestionIds.of(question))) {
+            unsaved.add(key(player));
+        }
+    }
+
+    /**
+     * Saves every player with marks that are not on disk yet.
+     */
+    public void saveAll() {
+        for (String key : new ArrayList<>(unsaved)) {
+            save(key);
+        }
+    }
+
+    public void save(String player) {
+        String key = key(player);
+        Roaring64Bitmap seen = players.get(key);
+        if (seen == null) {
+            return;
+        }
+        unsaved.remove(key);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            System.err.println("Unable to create " + directory);
+            return;
+        }
+        File file = file(key);
+        File temporary = new File(directory, file.getName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)))) {
+                out.writeInt(FORMAT);
+                seen.writeTo(out);
+            }
+            Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            unsaved.add(key);
+            System.err.println("Error saving seen questions for " + player + ": " + e.getMessage());
+        }
+    }
+
+    private Roaring64Bitmap load(String key) {
+        File file = file(key);
+        if (!file.isFile()) {
+            return new Roaring64Bitmap();
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FORMAT) {
+                System.err.println("Ignoring " + file + ": written by an older version");
+                return new Roaring64Bitmap();
+            }
+            return Roaring64Bitmap.readFrom(in);
+        } catch (IOException e) {
+            System.err.println("Error reading " + file + ": " + e.getMessage());
+            return new Roaring64Bitmap();
+        }
+    }
+
+    // Hex of the name keeps any username safe as a file name
+    private File file(String key) {
+        return new File(directory, HexFormat.of().formatHex(key.getBytes(StandardCharsets.UTF_8)) + ".seen");
+    }
+
+    private static String key(String player) {
+        return player.toLowerCase(Locale.ROOT);
+    }
+}
@@ -5,6 +5,9 @@
 
 package com.intellectual_systems.command;
 
+import com.intellectual_systems.model.Category;
+import com.intellectual_systems.model.Question;
+
 /**
  *
  * @author Jonathan
@@ -24,8 +27,10 @@ public class AnswerQuestionCommand implements Command {
 
     @Override
     public void execute() {
-        String correctAnswer = gameEngine.getCategoryByName(this.categoryName).getQuestionByCategoryAndValue(this.categoryName, this.questionValue).getAnswer();
-        String selectedAnswer = gameEngine.getCategoryByName(this.categoryName).getQuestionByCategoryAndValue(this.categoryName, this.questionValue).getChoices().get(this.choiceIndex - 'A');
+        Category category = gameEngine.getCategoryByName(this.categoryName);
+        Question question = category.getQuestionByCategoryAndValue(this.categoryName, this.questionValue);
+        String correctAnswer = question.getAnswer();
+        String selectedAnswer = question.getChoices().get(this.choiceIndex - 'A');
         gameEngine.getTurnManager().getCurrentTurn().setCurrentAnswer(selectedAnswer);
 
         selectedAnswer = Character.toString(choiceIndex);
@@ -40,8 +45,8 @@ public class AnswerQuestionCommand implements Command {
         }
         
         gameEngine.getGameBoard().clearCell(this.categoryName, this.questionValue);
-        gameEngine.getCategoryByName(this.categoryName).removeQuestion(gameEngine.getCategoryByName(this.categoryName).getQuestionByCategoryAndValue(this.categoryName, this.questionValue));
         gameEngine.getGameSummary().addTurn(gameEngine.getTurnManager().getCurrentTurn().toString());
+        gameEngine.recordTurn(this.categoryName, this.questionValue);
         gameEngine.addPlayerGameEvent("Answer Question", gameEngine.getTurnManager().getCurrentTurn());
         gameEngine.renderNextState();
     }
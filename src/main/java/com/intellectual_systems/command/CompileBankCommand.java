@@ -0,0 +1,44 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.intellectual_systems.command;
+
+import java.io.IOException;
+
+import com.intellectual_systems.parser.GameDataParser;
+import com.intellectual_systems.parser.ParserRegistry;
+import com.intellectual_systems.parser.QBankCompiler;
+import com.intellectual_systems.parser.QBankParser;
+
+/**
+ * Converts a CSV, JSON or XML bank into the binary .qbank format.
+ *
+ * @author Jonathan
+ */
+public class CompileBankCommand implements Command {
+    private final String sourcePath;
+    private final String targetPath;
+
+    public CompileBankCommand(String sourcePath, String targetPath) {
+        this.sourcePath = sourcePath;
+        this.targetPath = targetPath;
+    }
+
+    @Override
+    public void execute() {
+        GameDataParser parser = ParserRegistry.forFile(sourcePath);
+        if (parser == null || parser instanceof QBankParser) {
+            System.out.println("Unsupported bank format: " + sourcePath);
+            return;
+        }
+
+        try {
+            QBankCompiler.compile(parser, sourcePath, targetPath);
+            System.out.println("Compiled " + sourcePath + " to " + targetPath);
+        } catch (IOException e) {
+            System.err.println("Error writing question bank: " + e.getMessage());
+        }
+    }
+}
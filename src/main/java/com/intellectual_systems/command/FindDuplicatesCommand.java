@@ -0,0 +1,74 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.intellectual_systems.command;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.intellectual_systems.bank.NearDuplicateDetector;
+import com.intellectual_systems.model.Question;
+import com.intellectual_systems.parser.CsvParser;
+import com.intellectual_systems.parser.GameDataParser;
+import com.intellectual_systems.parser.ParserRegistry;
+import com.intellectual_systems.parser.QBankParser;
+
+/**
+ * Reports clusters of reworded questions across one or more banks.
+ *
+ * @author Jonathan
+ */
+public class FindDuplicatesCommand implements Command {
+    private final List<String> sources;
+
+    /**
+     * @param sources files, directories or globs, in any supported format
+     */
+    public FindDuplicatesCommand(List<String> sources) {
+        this.sources = sources;
+    }
+
+    @Override
+    public void execute() {
+        List<String> files = new ArrayList<>();
+        try {
+            for (String source : sources) {
+                files.addAll(ParserRegistry.expand(source));
+            }
+        } catch (IOException e) {
+            System.err.println("Error listing banks: " + e.getMessage());
+            return;
+        }
+
+        NearDuplicateDetector detector = new NearDuplicateDetector();
+        for (String file : files) {
+            GameDataParser parser = ParserRegistry.forFile(file);
+            if (parser == null) {
+                System.out.println("Skipping unreadable bank: " + file);
+                continue;
+            }
+            if (parser instanceof CsvParser) {
+                parser = new CsvParser();
+            } else if (parser instanceof QBankParser) {
+                parser = new QBankParser();
+            }
+            detector.beginSource(file);
+            parser.parse(file, detector);
+        }
+
+        List<List<NearDuplicateDetector.Match>> clusters = detector.findClusters();
+        int number = 1;
+        for (List<NearDuplicateDetector.Match> cluster : clusters) {
+            System.out.println("Cluster " + number++ + " (" + cluster.size() + " questions):");
+            for (NearDuplicateDetector.Match match : cluster) {
+                Question question = match.getQuestion();
+                System.out.println("  [" + match.getSource() + "] " + question.getCategory() + " $" + question.getValue() + ": " + question.getQuestionText());
+            }
+        }
+        System.out.println("Checked " + detector.getQuestionCount() + " questions in " + files.size() + " bank file(s): "
+                + clusters.size() + " near-duplicate cluster(s) found.");
+    }
+}
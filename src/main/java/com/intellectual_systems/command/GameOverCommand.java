@@ -20,6 +20,7 @@ public class GameOverCommand implements Command {
 
     @Override
     public void execute() {
+        gameEngine.stopWatchingBank();
         gameEngine.addSystemGameEvent("Generate Event Log");
         gameEngine.addSystemGameEvent("Exit Game");
         gameEngine.getEventLogger().LogEventsToCSV();
@@ -5,11 +5,18 @@
 
 package com.intellectual_systems.command;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
 import com.intellectual_systems.controller.GameEngine;
 import com.intellectual_systems.model.GameBoard;
 import com.intellectual_systems.parser.CsvParser;
 import com.intellectual_systems.parser.GameDataParser;
 import com.intellectual_systems.parser.JsonParser;
+import com.intellectual_systems.parser.MultiBankLoader;
+import com.intellectual_systems.parser.ParserRegistry;
+import com.intellectual_systems.parser.QBankParser;
 import com.intellectual_systems.parser.XmlParser;
 
 /**
@@ -35,7 +42,11 @@ public class LoadGameDataCommand implements Command {
         return gameEngine;
     }
 
-    public void parse(){
+    /**
+     * Loads the bank into the engine. Returns false, having printed why,
+     * if nothing was loaded.
+     */
+    public boolean parse(){
         GameDataParser parser;
         if (format.equalsIgnoreCase("1")) {
             // Load JSON data
@@ -51,17 +62,45 @@ public class LoadGameDataCommand implements Command {
         }
         } else if (format.equalsIgnoreCase("3")) {
             // Load CSV data
-            parser = new CsvParser();
             if(this.filePath.equals("default")){
             this.filePath = "src/main/java/com/intellectual_systems/resources/sample_game_CSV.csv";
         }
+            parser = new CsvParser(new File(this.filePath).length() >= CsvParser.MAPPED_THRESHOLD);
+        } else if (format.equalsIgnoreCase("4")) {
+            // Compiled banks are already cheap to open, so skip the parse cache and read bodies on demand
+            gameEngine.setQuestionBank(new QBankParser(true).parse(filePath));
+            return true;
+        } else if (format.equalsIgnoreCase("5")) {
+            // Auto-detect: a single file, a directory or a glob of banks in any format
+            List<String> files;
+            try {
+                files = ParserRegistry.expand(filePath);
+            } catch (IOException e) {
+                files = List.of();
+            }
+            if (files.isEmpty()) {
+                System.out.println("No question banks found at " + filePath);
+                return false;
+            }
+            gameEngine.stopWatchingBank();
+            gameEngine.setQuestionBank(new MultiBankLoader(gameEngine.getParseCache()).load(files));
+            System.out.println("Loaded " + files.size() + " bank file(s). " + gameEngine.getParseCache());
+            if (files.size() == 1) {
+                GameDataParser single = ParserRegistry.forFile(files.get(0));
+                if (single != null && !(single instanceof QBankParser)) {
+                    gameEngine.watchBank(files.get(0), single);
+                }
+            }
+            return true;
         } else {
             System.out.println("Unsupported format: " + format);
-            gameEngine.renderCurrentState();
-            return;
+            return false;
         }
 
-        gameEngine.setCategories(parser.parse(filePath));
+        gameEngine.setQuestionBank(gameEngine.getParseCache().load(filePath, parser));
+        System.out.println(gameEngine.getParseCache());
+        gameEngine.watchBank(filePath, parser);
+        return true;
     }
 
     public void loadGameBoard(){
@@ -73,7 +112,9 @@ public class LoadGameDataCommand implements Command {
 
     @Override
     public void execute() {
-        parse();
+        if (!parse()) {
+            return;
+        }
         loadGameBoard();
         gameEngine.addSystemGameEvent("Load File");
         gameEngine.renderNextState();
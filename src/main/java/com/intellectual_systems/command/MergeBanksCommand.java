@@ -0,0 +1,93 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.intellectual_systems.command;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.intellectual_systems.bank.CsvBankWriter;
+import com.intellectual_systems.bank.ExternalBankSorter;
+import com.intellectual_systems.parser.CsvParser;
+import com.intellectual_systems.parser.GameDataParser;
+import com.intellectual_systems.parser.ParserRegistry;
+import com.intellectual_systems.parser.QBankParser;
+
+/**
+ * Merges any number of banks into one CSV bank sorted by category, value
+ * and question, dropping exact duplicates. Inputs are streamed through an
+ * external sort, so the total size is not limited by the heap.
+ *
+ * @author Jonathan
+ */
+public class MergeBanksCommand implements Command {
+    private final List<String> sources;
+    private final String targetPath;
+
+    /**
+     * @param sources files, directories or globs, in any supported format
+     */
+    public MergeBanksCommand(List<String> sources, String targetPath) {
+        this.sources = sources;
+        this.targetPath = targetPath;
+    }
+
+    @Override
+    public void execute() {
+        List<String> files = new ArrayList<>();
+        try {
+            for (String source : sources) {
+                files.addAll(ParserRegistry.expand(source));
+            }
+        } catch (IOException e) {
+            System.err.println("Error listing banks: " + e.getMessage());
+            return;
+        }
+        if (files.isEmpty()) {
+            System.out.println("No question banks found to merge.");
+            return;
+        }
+
+        try (ExternalBankSorter sorter = new ExternalBankSorter()) {
+            for (String file : files) {
+                GameDataParser parser = streamingParser(file);
+                if (parser == null) {
+                    System.out.println("Skipping unreadable bank: " + file);
+                    continue;
+                }
+                parser.parse(file, sorter);
+            }
+            try (CsvBankWriter writer = new CsvBankWriter(targetPath)) {
+                sorter.finish(writer);
+            }
+            System.out.println("Merged " + files.size() + " bank file(s) into " + targetPath + ": "
+                    + sorter.getOutputCount() + " questions written, " + sorter.getDuplicateCount() + " duplicates dropped");
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Error merging question banks: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            // Don't leave a bank that silently lacks the rejected questions
+            new File(targetPath).delete();
+            System.err.println("Error merging question banks: " + e.getMessage());
+        }
+    }
+
+    /**
+     * The registry's parser, except that CSV and compiled banks are read
+     * record by record instead of being collected into categories first.
+     */
+    private static GameDataParser streamingParser(String file) {
+        GameDataParser parser = ParserRegistry.forFile(file);
+        if (parser instanceof CsvParser) {
+            return new CsvParser();
+        }
+        if (parser instanceof QBankParser) {
+            return new QBankParser();
+        }
+        return parser;
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.intellectual_systems.command;
+
+import com.intellectual_systems.controller.GameEngine;
+import com.intellectual_systems.controller.Pager;
+
+/**
+ *
+ * @author Jonathan
+ */
+public class PageCommand implements Command {
+    private final GameEngine gameEngine;
+    private final Pager pager;
+    private final int total;
+    private final int delta;
+
+    public PageCommand(GameEngine gameEngine, Pager pager, int total, int delta) {
+        this.gameEngine = gameEngine;
+        this.pager = pager;
+        this.total = total;
+        this.delta = delta;
+    }
+
+    public GameEngine getGameEngine() {
+        return gameEngine;
+    }
+
+    @Override
+    public void execute() {
+        if (!pager.move(delta, total)) {
+            System.out.println(delta > 0 ? "Already on the last page." : "Already on the first page.");
+        }
+    }
+}
@@ -32,13 +32,13 @@ public class PlayerSetupCommand implements Command {
     public void execute() {
         if (players == null || players.isEmpty()) {
             System.out.println("No players to set up.");
-            gameEngine.renderCurrentState();
             return;
         }
         Turn SelectPlayerTurn = new Turn(null);
         SelectPlayerTurn.setCurrentAnswer(String.valueOf(players.size()));
         gameEngine.addPlayerGameEvent("Select Player Count", SelectPlayerTurn);
         gameEngine.setPlayers(this.players);
+        gameEngine.rebuildBoardForPlayers();
         gameEngine.initializeTurnManager();
         for (Player player : players) {
             Turn EnterPlayerNameTurn = new Turn(player);
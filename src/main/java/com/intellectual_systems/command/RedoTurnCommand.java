@@ -0,0 +1,36 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.intellectual_systems.command;
+
+import com.intellectual_systems.controller.GameEngine;
+import com.intellectual_systems.model.Turn;
+
+/**
+ *
+ * @author Jonathan
+ */
+public class RedoTurnCommand implements Command {
+    private final GameEngine gameEngine;
+
+    public RedoTurnCommand(GameEngine gameEngine) {
+        this.gameEngine = gameEngine;
+    }
+
+    public GameEngine getGameEngine() {
+        return gameEngine;
+    }
+
+    @Override
+    public void execute() {
+        if (!gameEngine.redoTurn()) {
+            System.out.println("Nothing to redo.");
+        } else {
+            Turn redone = gameEngine.getTurnManager().getCurrentTurn();
+            System.out.println("Redid " + redone.getPlayer().getUsername() + "'s answer to " + redone.getCurrentCategory() + " for " + redone.getCurrentQuestionValue() + ".");
+            gameEngine.addPlayerGameEvent("Redo Answer", gameEngine.getTurnManager().getCurrentTurn());
+        }
+    }
+}
@@ -27,6 +27,7 @@ public class SelectCategoryCommand implements Command {
     public void execute() {
         String categoryName = gameEngine.getCategories().get(categoryIndex).getName();
         gameEngine.getTurnManager().getCurrentTurn().setCurrentCategory(categoryName);
+        gameEngine.getQuestionPager().reset();
         gameEngine.addPlayerGameEvent("Select Category", gameEngine.getTurnManager().getCurrentTurn());
         gameEngine.renderNextState();
     }
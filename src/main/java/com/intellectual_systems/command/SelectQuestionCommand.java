@@ -6,6 +6,7 @@
 package com.intellectual_systems.command;
 
 import com.intellectual_systems.controller.GameEngine;
+import com.intellectual_systems.model.Question;
 
 /**
  *
@@ -28,8 +29,9 @@ public class SelectQuestionCommand implements Command {
 
     @Override
     public void execute() {
-        String question= gameEngine.getCategoryByName(categoryName).getQuestions().get(questionIndex).getQuestionText();
-        int value = gameEngine.getCategoryByName(categoryName).getQuestions().get(questionIndex).getValue();
+        Question selected = gameEngine.getAvailableQuestions(categoryName).get(questionIndex);
+        String question = selected.getQuestionText();
+        int value = selected.getValue();
         gameEngine.getTurnManager().getCurrentTurn().setCurrentQuestion(question);
         gameEngine.getTurnManager().getCurrentTurn().setCurrentQuestionValue(value);
 
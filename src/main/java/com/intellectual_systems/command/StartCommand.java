@@ -28,7 +28,6 @@ public class StartCommand implements Command {
     public void execute() {
         if (!input.equalsIgnoreCase("start")) {
             System.out.println("Invalid input. Please type 'Start' to begin.");
-            gameEngine.renderCurrentState();
             return;
         }
         gameEngine.addSystemGameEvent("Start Game");
@@ -0,0 +1,36 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.intellectual_systems.command;
+
+import com.intellectual_systems.controller.GameEngine;
+import com.intellectual_systems.model.Turn;
+
+/**
+ *
+ * @author Jonathan
+ */
+public class UndoTurnCommand implements Command {
+    private final GameEngine gameEngine;
+
+    public UndoTurnCommand(GameEngine gameEngine) {
+        this.gameEngine = gameEngine;
+    }
+
+    public GameEngine getGameEngine() {
+        return gameEngine;
+    }
+
+    @Override
+    public void execute() {
+        Turn undone = gameEngine.getTurnManager().getCurrentTurn();
+        if (!gameEngine.undoTurn()) {
+            System.out.println("Nothing to undo.");
+        } else {
+            System.out.println("Undid " + undone.getPlayer().getUsername() + "'s answer to " + undone.getCurrentCategory() + " for " + undone.getCurrentQuestionValue() + ".");
+            gameEngine.addPlayerGameEvent("Undo Answer", undone);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.intellectual_systems.controller;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import com.intellectual_systems.model.Category;
+import com.intellectual_systems.model.Question;
+import com.intellectual_systems.parser.GameDataParser;
+
+/**
+ * Watches the loaded bank file and, when it changes, reparses it in the
+ * background and queues only the questions whose content differs. The
+ * engine applies queued batches between turns, so a turn never sees a
+ * half-applied edit.
+ *
+ * @author Jonathan
+ */
+public class BankWatcher implements Runnable {
+    private static final long SETTLE_MILLIS = 200;
+
+    private final Path file;
+    private final GameDataParser parser;
+    private final Map<String, Long> fingerprints = new HashMap<>();
+    private final ConcurrentLinkedQueue<List<Question>> batches = new ConcurrentLinkedQueue<>();
+    private WatchService watchService;
+    private Thread thread;
+
+    public BankWatcher(String filePath, GameDataParser parser, List<Category> loaded) {
+        this.file = Path.of(filePath).toAbsolutePath().normalize();
+        this.parser = parser;
+        for (Category category : loaded) {
+            for (Question question : category.getQuestions()) {
+                fingerprints.put(key(question), fingerprint(question));
+            }
+        }
+    }
+
+    public void start() throws IOException {
+        watchService = FileSystems.getDefault().newWatchService();
+        file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+        thread = new Thread(this, "bank-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        try {
+            if (watchService != null) {
+                watchService.close();
+            }
+        } catch (IOException e) {
+        }
+    }
+
+    /**
+     * Removes and returns every complete batch of changed questions.
+     */
+    public List<List<Question>> drainChanges() {
+        List<List<Question>> drained = new ArrayList<>();
+        List<Question> batch;
+        while ((batch = batches.poll()) != null) {
+            drained.add(batch);
+        }
+        return drained;
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean touched = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (file.getFileName().equals(event.context())) {
+                        touched = true;
+                    }
+                }
+                key.reset();
+                if (touched) {
+                    // Editors often write in several steps; let the file settle before reading it
+                    Thread.sleep(SETTLE_MILLIS);
+                    try {
+                        reload();
+                    } catch (RuntimeException e) {
+                        // A half-written file can fail to parse; the next write triggers another reload
+                        System.err.println("Unable to reload " + file + ": " + e);
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+        }
+    }
+
+    /**
+     * Parses the whole file before touching the fingerprints, so a parse
+     * that throws part way through leaves them as they were.
+     */
+    private void reload() {
+        Map<String, Long> parsed = new HashMap<>();
+        List<Question> changed = new ArrayList<>();
+        parser.parse(file.toString(), question -> {
+            String key = key(question);
+            long fingerprint = fingerprint(question);
+            Long previous = parsed.containsKey(key) ? parsed.get(key) : fingerprints.get(key);
+            parsed.put(key, fingerprint);
+            if (previous == null || previous != fingerprint) {
+                changed.add(question);
+            }
+        });
+        fingerprints.putAll(parsed);
+        if (!changed.isEmpty()) {
+            batches.add(changed);
+        }
+    }
+
+    private static String key(Question question) {
+        return question.getCategory() + '\u0000' + question.getValue();
+    }
+
+    private static long fingerprint(Question question) {
+        long hash = 1125899906842597L;
+        hash = 31 * hash + String.valueOf(question.getQuestionText()).hashCode();
+        hash = 31 * hash + String.valueOf(question.getAnswer()).hashCode();
+        for (String choice : question.getChoices()) {
+            hash = 31 * hash + String.valueOf(choice).hashCode();
+        }
+        return hash;
+    }
+}
@@ -4,15 +4,31 @@
  */
 
 package com.intellectual_systems.controller;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.function.Function;
 
+import com.intellectual_systems.bank.BoardBuilder;
+import com.intellectual_systems.bank.QuestionIndex;
+import com.intellectual_systems.bank.SeenQuestionStore;
 import com.intellectual_systems.logging.EventLogger;
 import com.intellectual_systems.logging.GameEvent;
 import com.intellectual_systems.model.Category;
 import com.intellectual_systems.model.GameBoard;
+import com.intellectual_systems.model.GameSnapshot;
 import com.intellectual_systems.model.GameSummary;
 import com.intellectual_systems.model.Player;
+import com.intellectual_systems.model.Question;
 import com.intellectual_systems.model.Turn;
+import com.intellectual_systems.parser.GameDataParser;
+import com.intellectual_systems.parser.ParseCache;
+import com.intellectual_systems.util.Roaring64Bitmap;
 
 
 /**
@@ -20,18 +36,38 @@ import com.intellectual_systems.model.Turn;
  * @author Jonathan
  */
 public class GameEngine {
+    public static final int PAGE_SIZE = 8;
+
     GameState state;
+    // One instance of each state, reused on every transition
+    private final HashMap<Class<?>, GameState> states = new HashMap<>();
     private String gameId;
     private static int gamesPlayed = 0;
 
     private List<Player> players;
     private List<Category> categories;
+    private List<Category> questionBank;
+    private final HashMap<String, Integer> categoryIndexes = new HashMap<>();
+    private long boardSeed = System.nanoTime();
+    // 0 plays the whole bank; otherwise boards of this many categories are sampled from it
+    private int boardCategories = 0;
+    private BoardBuilder boardBuilder;
+    // Created on first use, so an engine that never deals a board never touches the home directory
+    private SeenQuestionStore seenQuestions;
 
     private GameBoard gameBoard;
     private TurnManager turnManager;
     private final GameEvent gameEvent;
     private final EventLogger eventLogger;
+    private final ParseCache parseCache = new ParseCache();
+    private BankWatcher bankWatcher;
+    private QuestionIndex questionIndex;
     private GameSummary gameSummary;
+    private GameHistory history;
+    private final Pager categoryPager = new Pager(PAGE_SIZE);
+    private final Pager questionPager = new Pager(PAGE_SIZE);
+    // Written only by the engine thread; read by anyone
+    private volatile GameSnapshot snapshot = GameSnapshot.EMPTY;
 
     public GameEngine(GameState startState) {
         this.state = startState;
@@ -47,21 +83,58 @@ public class GameEngine {
 
     public List<Player> getPlayers() { return this.players;}
     public Category getCategoryByName(String name) {
-        for (Category category : categories) {
-            if (category.getName().equals(name)) {
-                return category;
-            }
-        }
-        return null; 
+        Integer index = categoryIndexes.get(name);
+        return index != null ? categories.get(index) : null;
     }
     public GameBoard getGameBoard(){ return this.gameBoard; }
     public List<Category> getCategories() {  return this.categories; }
+    public List<Category> getQuestionBank() { return this.questionBank != null ? this.questionBank : this.categories; }
+    public long getBoardSeed() { return this.boardSeed; }
+    /**
+     * The store set with {@link #setSeenQuestions}, or one under the
+     * user's home directory if none was set.
+     */
+    public SeenQuestionStore getSeenQuestions() {
+        if (this.seenQuestions == null) {
+            this.seenQuestions = new SeenQuestionStore(new File(System.getProperty("user.home"), ".int_sys_oop2" + File.separator + "seen"));
+        }
+        return this.seenQuestions;
+    }
+    /**
+     * Questions of the category whose board cells are still open, in bank order.
+     */
+    public List<Question> getAvailableQuestions(String categoryName) {
+        List<Question> available = new ArrayList<>();
+        for (Question question : getCategoryByName(categoryName).getQuestions()) {
+            if (!this.gameBoard.isAnswered(categoryName, question.getValue())) {
+                available.add(question);
+            }
+        }
+        return available;
+    }
     public TurnManager getTurnManager(){ return this.turnManager; }
 
-    public int getTotalTurns() { return categories.size() * categories.get(0).getQuestions().size();  }
     public GameEvent getGameEvent() { return this.gameEvent; }
     public EventLogger getEventLogger() { return this.eventLogger; }
+    public ParseCache getParseCache() { return this.parseCache; }
     public GameSummary getGameSummary() { return this.gameSummary; }
+    public GameHistory getHistory() { return this.history; }
+    public Pager getCategoryPager() { return this.categoryPager; }
+    public Pager getQuestionPager() { return this.questionPager; }
+    /**
+     * Latest published state, safe to read from any thread.
+     */
+    public GameSnapshot getSnapshot() { return this.snapshot; }
+    /**
+     * Search index over the whole question bank, built on first use and
+     * rebuilt after the bank is replaced or edited.
+     */
+    public QuestionIndex getQuestionIndex() {
+        if (this.questionIndex == null) {
+            this.questionIndex = new QuestionIndex(getQuestionBank());
+        }
+        return this.questionIndex;
+    }
 
     //Mutator methods
     public void updateGameId() {
@@ -70,13 +143,238 @@ public class GameEngine {
     }
     public void addPlayer(Player player) { this.players.add(player);}
     public void setPlayers(List<Player> players) { this.players = players; }
-    public void setCategories(List<Category> categories) { this.categories = categories; }
+    public void setCategories(List<Category> categories) {
+        this.categories = categories;
+        this.categoryIndexes.clear();
+        for (int i = 0; i < categories.size(); i++) {
+            this.categoryIndexes.putIfAbsent(categories.get(i).getName(), i);
+        }
+    }
+    /**
+     * Loads a new bank. The bank is played as it is unless a board size
+     * was set with {@link #setBoardCategories} and the bank holds more
+     * than one board's worth of questions; then the board's categories
+     * are sampled from it with the board seed. The engine only reads the
+     * bank, so the same list can be shared between games.
+     */
+    public void setQuestionBank(List<Category> questionBank) {
+        questionBank = Collections.unmodifiableList(questionBank);
+        this.questionBank = questionBank;
+        this.questionIndex = null;
+        this.boardBuilder = null;
+        if (isSampling()) {
+            setCategories(getBoardBuilder().build(this.boardCategories, this.boardSeed));
+        } else {
+            setCategories(questionBank);
+        }
+    }
+    public void setBoardSeed(long boardSeed) { this.boardSeed = boardSeed; }
+    /**
+     * Deals boards of {@code categoryCount} categories sampled from the
+     * bank, or plays the whole bank if it is 0, the default. Takes effect
+     * from the next bank loaded.
+     */
+    public void setBoardCategories(int categoryCount) { this.boardCategories = Math.max(0, categoryCount); }
+    public void setSeenQuestions(SeenQuestionStore seenQuestions) { this.seenQuestions = seenQuestions; }
+    /**
+     * Samples the board again now that the players are known, skipping
+     * questions any of them has been asked in earlier games wherever the
+     * bank has an alternative. Does nothing if the bank is played whole.
+     */
+    public void rebuildBoardForPlayers() {
+        if (!isSampling()) {
+            return;
+        }
+        List<Roaring64Bitmap> seen = new ArrayList<>();
+        for (Player player : this.players) {
+            seen.add(getSeenQuestions().get(player.getUsername()));
+        }
+        setCategories(getBoardBuilder().build(this.boardCategories, this.boardSeed, id -> {
+            for (Roaring64Bitmap bitmap : seen) {
+                if (bitmap.contains(id)) {
+                    return true;
+                }
+            }
+            return false;
+        }));
+        GameBoard board = new GameBoard(this.categories);
+        board.initializeBoard(this.categories);
+        board.loadQuestions(this.categories);
+        setGameBoard(board);
+    }
+    /**
+     * Records every question answered on the board as seen by every player
+     * at the table, and saves the players' files. Called when a game ends
+     * and when the loop exits. Undone answers are open cells again, so
+     * they are never recorded.
+     */
+    public void recordSeenQuestions() {
+        if (this.gameBoard != null && this.players != null) {
+            for (Question question : this.gameBoard.getAnsweredQuestions()) {
+                for (Player player : this.players) {
+                    getSeenQuestions().markSeen(player.getUsername(), question);
+                }
+            }
+        }
+        if (this.seenQuestions != null) {
+            this.seenQuestions.saveAll();
+        }
+    }
+    /**
+     * Starts a new game on the loaded board: a new game id and every cell
+     * reopened, without reparsing or copying the bank. The board seed
+     * moves on, so the board sampled for the next players is a fresh draw.
+     */
+    public void restartGame() {
+        updateGameId();
+        this.boardSeed = new SplittableRandom(this.boardSeed).nextLong();
+        this.gameBoard.reset();
+    }
 
     public void setGameBoard(GameBoard gameBoard){  this.gameBoard = gameBoard; }
     public void setState(GameState state) { this.state = state;  }
+    /**
+     * The engine's instance of a state, created with {@code factory} on first use.
+     */
+    public <T extends GameState> T getState(Class<T> type, Function<GameEngine, T> factory) {
+        return type.cast(this.states.computeIfAbsent(type, key -> factory.apply(this)));
+    }
     public void addGameSummary(){ 
         GameSummary gS= new GameSummary(this.gameId, this.players);
         this.gameSummary = gS;
+        this.history = new GameHistory(currentScores(), gS.getTurns());
+    }
+
+    //History methods
+    /**
+     * Commits the current turn's answer to the history. Call once the
+     * cell is cleared, the score updated and the turn added to the summary.
+     */
+    public void recordTurn(String categoryName, int value) {
+        GameHistory.Version next = this.history.getCurrent().next(
+                this.gameBoard.getCell(categoryName, value),
+                currentScores(),
+                this.gameSummary.getTurns(),
+                this.turnManager.getCurrentPlayerIndex(),
+                this.turnManager.getCurrentTurn());
+        this.history.commit(next);
+    }
+    public boolean undoTurn() {
+        GameHistory.Version from = this.history.getCurrent();
+        return restore(from, this.history.undo());
+    }
+    public boolean redoTurn() {
+        GameHistory.Version from = this.history.getCurrent();
+        return restore(from, this.history.redo());
+    }
+
+    /**
+     * Brings the board, scores, summary and turn from one version to
+     * another. Only the cells that differ between the two are touched.
+     */
+    private boolean restore(GameHistory.Version from, GameHistory.Version to) {
+        if (to == null) {
+            return false;
+        }
+        from.getAnswered().forEachDifference(to.getAnswered(), cell -> this.gameBoard.setAnswered(cell, to.getAnswered().get(cell)));
+        for (int i = 0; i < this.players.size(); i++) {
+            this.players.get(i).setScore(to.getScore(i));
+        }
+        this.gameSummary.setTurns(to.getTurns());
+        this.turnManager.restoreTurn(to.getPlayerIndex(), to.getTurn());
+        publishSnapshot();
+        return true;
+    }
+
+    private int[] currentScores() {
+        int[] scores = new int[this.players.size()];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = this.players.get(i).getScore();
+        }
+        return scores;
+    }
+
+    private boolean isSampling() {
+        return this.questionBank != null && this.boardCategories > 0 && getBoardBuilder().isLargerThan(this.boardCategories);
+    }
+    private BoardBuilder getBoardBuilder() {
+        if (this.boardBuilder == null) {
+            this.boardBuilder = new BoardBuilder(getQuestionBank());
+        }
+        return this.boardBuilder;
+    }
+
+    //Hot reload methods
+    public void watchBank(String filePath, GameDataParser parser) {
+        stopWatchingBank();
+        try {
+            BankWatcher watcher = new BankWatcher(filePath, parser, getQuestionBank());
+            watcher.start();
+            this.bankWatcher = watcher;
+        } catch (IOException e) {
+            System.err.println("Unable to watch " + filePath + " for changes: " + e.getMessage());
+        }
+    }
+    public void stopWatchingBank() {
+        if (this.bankWatcher != null) {
+            this.bankWatcher.stop();
+            this.bankWatcher = null;
+        }
+    }
+    /**
+     * Applies edits picked up by the bank watcher. Only call this between
+     * turns. Categories are copied before they change, so other holders of
+     * the bank never see an edit. Questions already answered stay consumed,
+     * and new category/value pairs are ignored because the board layout is fixed.
+     */
+    public void applyBankChanges() {
+        if (this.bankWatcher == null) {
+            return;
+        }
+        int applied = 0;
+        for (List<Question> batch : this.bankWatcher.drainChanges()) {
+            for (Question updated : batch) {
+                boolean sampled = this.questionBank != null && this.questionBank != this.categories;
+                List<Category> board = withQuestion(this.categories, updated);
+                if (board != this.categories) {
+                    applied++;
+                    setCategories(board);
+                    if (!this.gameBoard.isAnswered(updated.getCategory(), updated.getValue())) {
+                        this.gameBoard.setCell(updated.getCategory(), updated.getValue(), updated);
+                    }
+                }
+                if (sampled) {
+                    // Sampled board: keep the pool in step for later boards and searches
+                    this.questionBank = withQuestion(this.questionBank, updated);
+                } else if (this.questionBank != null) {
+                    this.questionBank = this.categories;
+                }
+            }
+        }
+        if (applied > 0) {
+            this.questionIndex = null;
+            this.boardBuilder = null;
+            System.out.println("Applied " + applied + " question update(s) from the bank file.");
+        }
+    }
+
+    /**
+     * Returns a copy of the list with the question swapped in for the one
+     * at its category and value, or the list itself if there is none.
+     */
+    private static List<Category> withQuestion(List<Category> categories, Question updated) {
+        for (int i = 0; i < categories.size(); i++) {
+            Category category = categories.get(i);
+            if (category.getName().equals(updated.getCategory())) {
+                Question current = category.getQuestionByCategoryAndValue(updated.getCategory(), updated.getValue());
+                if (current != null) {
+                    List<Category> replaced = new ArrayList<>(categories);
+                    replaced.set(i, category.withQuestion(current, updated));
+                    return Collections.unmodifiableList(replaced);
+                }
+            }
+        }
+        return categories;
     }
 
     //Logging methods
@@ -98,8 +396,38 @@ public class GameEngine {
     }
 
     //Game state methods
-    public void renderCurrentState() { state.renderCurrentState(); }
-    public void renderNextState() { state.renderNextState(); }
+    /**
+     * Runs the game until a state stops it. States hand control back to
+     * this loop instead of rendering each other, so the stack stays the
+     * same depth however many turns, retries and restarts a session has.
+     */
+    public void run() {
+        while (this.state != null) {
+            try {
+                this.state.renderCurrentState();
+            } catch (NoSuchElementException e) {
+                System.out.println("\nInput closed. Exiting.");
+                stop();
+            }
+        }
+        recordSeenQuestions();
+    }
+    /**
+     * Ends the loop once the current state returns.
+     */
+    public void stop() { this.state = null; }
+    public void renderNextState() {
+        publishSnapshot();
+        this.state = state.renderNextState();
+    }
+    /**
+     * Replaces the published snapshot with a copy of the current board,
+     * scores and turn. Commands end in renderNextState, which calls this.
+     */
+    public void publishSnapshot() {
+        Turn turn = this.turnManager != null ? this.turnManager.getCurrentTurn() : null;
+        this.snapshot = GameSnapshot.capture(this.snapshot.getVersion() + 1, this.gameBoard, this.players, turn);
+    }
 
     public void initializeTurnManager(){this.turnManager = new TurnManager(players);}
 
@@ -0,0 +1,124 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.intellectual_systems.controller;
+
+import com.intellectual_systems.model.Turn;
+import com.intellectual_systems.util.PersistentBitSet;
+import com.intellectual_systems.util.PersistentList;
+
+/**
+ * Every answered question as an immutable version of the game. A version
+ * shares its answered-cell set and turn list with its parent and copies
+ * only the short score array, so the whole history costs a few small
+ * objects per turn. Undo and redo just move between versions.
+ *
+ * @author Jonathan
+ */
+public class GameHistory {
+    private Version current;
+    private PersistentList<Version> undone = PersistentList.empty();
+
+    public GameHistory(int[] scores, PersistentList<String> turns) {
+        this.current = new Version(null, scores.clone(), PersistentBitSet.EMPTY, turns, 0, null);
+    }
+
+    public Version getCurrent() {
+        return current;
+    }
+
+    public boolean canUndo() {
+        return current.parent != null;
+    }
+
+    public boolean canRedo() {
+        return !undone.isEmpty();
+    }
+
+    /**
+     * Makes {@code next} the current version. Versions that were undone
+     * can no longer be redone.
+     */
+    public void commit(Version next) {
+        if (next.parent != current) {
+            throw new IllegalArgumentException("Version does not follow the current version");
+        }
+        current = next;
+        undone = PersistentList.empty();
+    }
+
+    /**
+     * Steps back one version and returns it, or null at the start of the game.
+     */
+    public Version undo() {
+        if (!canUndo()) {
+            return null;
+        }
+        undone = undone.push(current);
+        current = current.parent;
+        return current;
+    }
+
+    /**
+     * Steps forward to the most recently undone version and returns it,
+     * or null if nothing was undone.
+     */
+    public Version redo() {
+        if (!canRedo()) {
+            return null;
+        }
+        current = undone.head();
+        undone = undone.tail();
+        return current;
+    }
+
+    public static final class Version {
+        private final Version parent;
+        private final int[] scores;
+        private final PersistentBitSet answered;
+        private final PersistentList<String> turns;
+        private final int playerIndex;
+        private final Turn turn;
+
+        private Version(Version parent, int[] scores, PersistentBitSet answered, PersistentList<String> turns, int playerIndex, Turn turn) {
+            this.parent = parent;
+            this.scores = scores;
+            this.answered = answered;
+            this.turns = turns;
+            this.playerIndex = playerIndex;
+            this.turn = turn;
+        }
+
+        /**
+         * The version after {@code turn} answered board cell {@code cell}.
+         */
+        public Version next(int cell, int[] scores, PersistentList<String> turns, int playerIndex, Turn turn) {
+            return new Version(this, scores.clone(), answered.set(cell, true), turns, playerIndex, turn);
+        }
+
+        public int getScore(int player) {
+            return scores[player];
+        }
+
+        public PersistentBitSet getAnswered() {
+            return answered;
+        }
+
+        public PersistentList<String> getTurns() {
+            return turns;
+        }
+
+        public int getPlayerIndex() {
+            return playerIndex;
+        }
+
+        /**
+         * The turn that produced this version, or null for the start of the game.
+         */
+        public Turn getTurn() {
+            return turn;
+        }
+    }
+}
@@ -10,6 +10,14 @@ package com.intellectual_systems.controller;
  * @author Jonathan
  */
 public interface GameState {
-    void renderNextState();
+    /**
+     * Returns the state that follows this one. It must not render it:
+     * the engine's loop does that, so transitions never nest.
+     */
+    GameState renderNextState();
+    /**
+     * Handles one round of input. Returning without a transition, e.g.
+     * after invalid input, makes the loop render this state again.
+     */
     void renderCurrentState();
 }
@@ -0,0 +1,68 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.intellectual_systems.controller;
+
+/**
+ * Current page of a list shown a fixed number of entries at a time. The
+ * list length is passed in on each call, so the page stays valid when the
+ * list changes underneath it.
+ *
+ * @author Jonathan
+ */
+public class Pager {
+    private final int pageSize;
+    private int page = 0;
+
+    public Pager(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public int getPageCount(int total) {
+        return Math.max(1, (total + pageSize - 1) / pageSize);
+    }
+
+    /**
+     * Zero-based page number, clamped to the pages {@code total} entries fill.
+     */
+    public int getPage(int total) {
+        return Math.min(page, getPageCount(total) - 1);
+    }
+
+    /**
+     * Index of the first entry on the current page.
+     */
+    public int getFirst(int total) {
+        return getPage(total) * pageSize;
+    }
+
+    /**
+     * Index one past the last entry on the current page.
+     */
+    public int getEnd(int total) {
+        return Math.min(total, getFirst(total) + pageSize);
+    }
+
+    /**
+     * Moves {@code delta} pages. Returns false, leaving the page as it
+     * was, if that would go past either end.
+     */
+    public boolean move(int delta, int total) {
+        int target = getPage(total) + delta;
+        if (target < 0 || target >= getPageCount(total)) {
+            return false;
+        }
+        page = target;
+        return true;
+    }
+
+    public void reset() {
+        page = 0;
+    }
+}
@@ -40,6 +40,15 @@ public class TurnManager {
         this.currentTurn = turn;
     }
 
+    /**
+     * Makes {@code turn} the current turn again, or a fresh turn for the
+     * player if it is null.
+     */
+    public void restoreTurn(int playerIndex, Turn turn) {
+        this.currentPlayerIndex = playerIndex;
+        this.currentTurn = turn != null ? turn : new Turn(players.get(playerIndex));
+    }
+
     public void nextTurn() {
         this.currentPlayerIndex = (currentPlayerIndex + 1) % players.size();
         this.currentTurn = new Turn(players.get(currentPlayerIndex));
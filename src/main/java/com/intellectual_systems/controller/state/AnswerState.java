@@ -5,6 +5,7 @@
 
 package com.intellectual_systems.controller.state;
 
+import java.util.List;
 import java.util.Scanner;
 
 import com.intellectual_systems.command.AnswerQuestionCommand;
@@ -32,8 +33,9 @@ public class AnswerState implements GameState {
         
        try {
             char i;
-            for(i = 'A'; i < 'A' + gameEngine.getCategoryByName(categoryName).getQuestionByCategoryAndValue(categoryName, value).getChoices().size(); i++){
-                System.out.println(i + ". " + gameEngine.getCategoryByName(categoryName).getQuestionByCategoryAndValue(categoryName, value).getChoices().get(i - 'A'));
+            List<String> choices = gameEngine.getCategoryByName(categoryName).getQuestionByCategoryAndValue(categoryName, value).getChoices();
+            for(i = 'A'; i < 'A' + choices.size(); i++){
+                System.out.println(i + ". " + choices.get(i - 'A'));
             }
 
             System.out.print("\nEnter your choice (A-" + (char)(i - 1) + "): ");
@@ -50,13 +52,11 @@ public class AnswerState implements GameState {
             answerQuestionCommand.execute();
         } catch(IllegalArgumentException e) {
             System.out.println("An error occurred: " + e.getMessage());
-            gameEngine.renderCurrentState();
         }
     }
 
     @Override
-    public void renderNextState() {
-        gameEngine.setState(new EndTurnState(gameEngine));
-        gameEngine.renderCurrentState();
+    public GameState renderNextState() {
+        return gameEngine.getState(EndTurnState.class, EndTurnState::new);
     }
 }
@@ -5,11 +5,16 @@
 
 package com.intellectual_systems.controller.state;
 
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Scanner;
 
+import com.intellectual_systems.command.PageCommand;
 import com.intellectual_systems.command.SelectCategoryCommand;
 import com.intellectual_systems.controller.GameEngine;
 import com.intellectual_systems.controller.GameState;
+import com.intellectual_systems.controller.Pager;
+import com.intellectual_systems.model.Category;
 
 /**
  *
@@ -25,39 +30,58 @@ public class CategorySelectState implements GameState {
 
     @Override
     public void renderCurrentState() {
-        System.out.println(gameEngine.getGameBoard().renderEntireGameBoard());
+        List<Category> categories = gameEngine.getCategories();
+        Pager pager = gameEngine.getCategoryPager();
+        int first = pager.getFirst(categories.size());
+        int end = pager.getEnd(categories.size());
+        boolean paged = pager.getPageCount(categories.size()) > 1;
+
+        // Only the current page of columns is rendered and listed
+        System.out.println(gameEngine.getGameBoard().renderViewport(first, end - first));
         System.out.println("Select a category for the game.");
 
-        
-        
         try {
-            int i;
-            for(i = 0; i < gameEngine.getCategories().size(); i++){
-                System.out.println((i + 1) + ". " + gameEngine.getCategories().get(i).getName());
+            // Categories whose questions have all been answered are left out
+            for(int i = first; i < end; i++){
+                if (gameEngine.getGameBoard().hasOpenCells(categories.get(i).getName())) {
+                    System.out.println((i + 1) + ". " + categories.get(i).getName());
+                }
+            }
+            if (paged) {
+                System.out.print("\nEnter your choice (" + (first + 1) + "-" + end + "), N for next page or P for previous page: ");
+            } else {
+                System.out.print("\nEnter your choice (1-" + end + "): ");
             }
-            System.out.print("\nEnter your choice (1-" + i + "): ");
 
-            int choice = Integer.parseInt(scanner.next());
+            String input = scanner.next();
             scanner.nextLine(); 
+            if (paged && (input.equalsIgnoreCase("N") || input.equalsIgnoreCase("P"))) {
+                PageCommand pageCommand = new PageCommand(gameEngine, pager, categories.size(), input.equalsIgnoreCase("N") ? 1 : -1);
+                pageCommand.execute();
+                return;
+            }
+            int choice = Integer.parseInt(input);
             
-            if (!Character.isDigit(Integer.toString(choice).charAt(0)) || choice < 1 || choice > i) {
+            if (!Character.isDigit(Integer.toString(choice).charAt(0)) || choice < 1 || choice > categories.size()) {
                 System.out.println("Invalid choice. Please select a valid category number.");
-                gameEngine.renderCurrentState();
+            } else if (!gameEngine.getGameBoard().hasOpenCells(categories.get(choice - 1).getName())) {
+                System.out.println("Every question in that category has been answered. Please select another category.");
             } else{
                 System.out.println("Category " + choice + " has been selected. \n");
                 SelectCategoryCommand selectCategoryCommand = new SelectCategoryCommand(gameEngine, choice - 1);
                 selectCategoryCommand.execute();
             }
+        } catch (NoSuchElementException e) {
+            // Input closed: let the engine's loop end the session
+            throw e;
         } catch(RuntimeException e) {
             System.out.println("An error occurred: " + e.getMessage());
-            gameEngine.renderCurrentState();
         }
     }
 
     @Override
-    public void renderNextState() {
-        gameEngine.setState(new QuestionSelectState(gameEngine));
-        gameEngine.renderCurrentState();
+    public GameState renderNextState() {
+        return gameEngine.getState(QuestionSelectState.class, QuestionSelectState::new);
     }
 
 }
\ No newline at end of file
@@ -8,6 +8,8 @@ package com.intellectual_systems.controller.state;
 import java.util.Scanner;
 
 import com.intellectual_systems.command.EndTurnCommand;
+import com.intellectual_systems.command.RedoTurnCommand;
+import com.intellectual_systems.command.UndoTurnCommand;
 import com.intellectual_systems.controller.GameEngine;
 import com.intellectual_systems.controller.GameState;
 
@@ -25,24 +27,37 @@ public class EndTurnState implements GameState {
 
     @Override
     public void renderCurrentState() {
+        if (gameEngine.getHistory().getCurrent().getTurn() == null) {
+            // Every answer was undone: the first player picks again
+            gameEngine.renderNextState();
+            return;
+        }
         System.out.println("\nTurn ended for player: " + gameEngine.getTurnManager().getCurrentTurn().getPlayer().getUsername());
         System.out.println("Answer was: " + gameEngine.getTurnManager().getCurrentTurn().getIsCorrect());
         
-        if (gameEngine.getTurnManager().getCurrentTurn().getTurnNumber() >= gameEngine.getTotalTurns()) {
-            System.out.println("Maximum number of turns reached.");
-            renderNextState();
-            return;
+        // The last answer can still be undone before the game ends
+        boolean cleared = gameEngine.getGameBoard().cellsRemaining() == 0;
+        if (cleared) {
+            System.out.println("Every question on the board has been answered.");
+            System.out.println("Finish the game? Y (U to undo the last answer)");
+        } else {
+            System.out.println("Continue? Y/N (U to undo the last answer, R to redo)");
         }
-
-        System.out.println("Continue? Y/N");
         String choice = scanner.next();
         scanner.nextLine();
 
-        if (choice.equalsIgnoreCase("Y")){
+        if (choice.equalsIgnoreCase("U")) {
+            UndoTurnCommand undoTurnCommand = new UndoTurnCommand(this.gameEngine);
+            undoTurnCommand.execute();
+            return;
+        } else if (choice.equalsIgnoreCase("R")) {
+            RedoTurnCommand redoTurnCommand = new RedoTurnCommand(this.gameEngine);
+            redoTurnCommand.execute();
+            return;
+        } else if (choice.equalsIgnoreCase("Y") && !cleared){
             System.out.println("Continuing to next turn...");
         } else {
-            gameEngine.setState(new ReportGenerationState(this.gameEngine));
-            gameEngine.renderCurrentState();
+            gameEngine.setState(gameEngine.getState(ReportGenerationState.class, ReportGenerationState::new));
             return;
         }
 
@@ -51,8 +66,7 @@ public class EndTurnState implements GameState {
     }
 
     @Override
-    public void renderNextState() {
-        gameEngine.setState(new CategorySelectState(this.gameEngine));
-        gameEngine.renderCurrentState();
+    public GameState renderNextState() {
+        return gameEngine.getState(CategorySelectState.class, CategorySelectState::new);
     }
 }
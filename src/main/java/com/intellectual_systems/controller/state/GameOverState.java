@@ -26,17 +26,18 @@ public class GameOverState implements GameState {
     @Override
     public void renderCurrentState() {
         System.out.println("\nGame Over!");
+        gameEngine.recordSeenQuestions();
         
         System.out.println("\nRestart the game? Y/N");
         String choice = scanner.next();
         scanner.nextLine();
         if (choice.equalsIgnoreCase("Y")) {
-            gameEngine.updateGameId();
-            renderNextState();
+            gameEngine.restartGame();
+            gameEngine.renderNextState();
             return;
         } else if (!choice.equalsIgnoreCase("N")) {
             System.out.println("Invalid Input, Please try again...");
-            renderCurrentState();
+            return;
         }
 
         System.out.println("\nPrinting game log to CSV...");
@@ -45,12 +46,16 @@ public class GameOverState implements GameState {
         gameOverCommand.execute();
 
         System.out.println("\nThank you for playing!");
+        gameEngine.stop();
         
     }
 
+    /**
+     * A restart keeps the loaded bank and board, so it goes straight back
+     * to player setup.
+     */
     @Override
-    public void renderNextState() {
-        gameEngine.setState(new LoadState(gameEngine));
-        gameEngine.renderCurrentState();
+    public GameState renderNextState() {
+        return gameEngine.getState(PlayerSetupState.class, PlayerSetupState::new);
     }
 }
@@ -5,6 +5,7 @@
 
 package com.intellectual_systems.controller.state;
 
+import java.util.NoSuchElementException;
 import java.util.Scanner;
 
 import com.intellectual_systems.command.LoadGameDataCommand;
@@ -33,7 +34,9 @@ public class LoadState implements GameState {
             System.out.println("1. JSON");
             System.out.println("2. XML");
             System.out.println("3. CSV");
-            System.out.print("Enter your choice (1-3): ");
+            System.out.println("4. Compiled bank (.qbank)");
+            System.out.println("5. Auto-detect (file, directory or glob)");
+            System.out.print("Enter your choice (1-5): ");
             String choice = scanner.next();
             scanner.nextLine();
 
@@ -44,16 +47,17 @@ public class LoadState implements GameState {
             LoadGameDataCommand loadCommand = new LoadGameDataCommand(gameEngine, filePath, choice);
             loadCommand.execute();
 
+        } catch (NoSuchElementException e) {
+            // Input closed: let the engine's loop end the session
+            throw e;
         } catch (Exception e) {
             System.out.println("An error occurred: " + e.getMessage());
-            gameEngine.renderCurrentState();
         }
 
     }
 
     @Override
-    public void renderNextState() {
-        gameEngine.setState(new PlayerSetupState(gameEngine));
-        gameEngine.renderCurrentState();
+    public GameState renderNextState() {
+        return gameEngine.getState(PlayerSetupState.class, PlayerSetupState::new);
     }
 }
\ No newline at end of file
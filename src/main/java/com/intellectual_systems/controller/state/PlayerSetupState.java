@@ -7,6 +7,7 @@ package com.intellectual_systems.controller.state;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Scanner;
 
 import com.intellectual_systems.command.PlayerSetupCommand;
@@ -36,7 +37,6 @@ public class PlayerSetupState implements GameState {
 
             if (!Character.isDigit(Integer.toString(numPlayers).charAt(0)) || numPlayers <= 0 || numPlayers > 4) {
                 System.out.println("Invalid number of players. Please try again.");
-                gameEngine.renderCurrentState();
             } else {
                 for (int i = 1; i <= numPlayers; i++) {
                     System.out.print("Enter name for Player " + i + ": ");
@@ -60,16 +60,17 @@ public class PlayerSetupState implements GameState {
                 PlayerSetupCommand playerSetupCommand = new PlayerSetupCommand(this.gameEngine, players);
                 playerSetupCommand.execute();
             }
+        } catch (NoSuchElementException e) {
+            // Input closed: let the engine's loop end the session
+            throw e;
         } catch ( RuntimeException e) {
             System.out.println("An error occurred: " + e.getMessage());
-            gameEngine.renderCurrentState();
         }
         
     }
 
     @Override
-    public void renderNextState() {
-        gameEngine.setState(new CategorySelectState(gameEngine));
-        gameEngine.renderCurrentState();
+    public GameState renderNextState() {
+        return gameEngine.getState(CategorySelectState.class, CategorySelectState::new);
     }
 }
\ No newline at end of file
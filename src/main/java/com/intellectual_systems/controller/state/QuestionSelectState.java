@@ -5,11 +5,16 @@
 
 package com.intellectual_systems.controller.state;
 
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Scanner;
 
+import com.intellectual_systems.command.PageCommand;
 import com.intellectual_systems.command.SelectQuestionCommand;
 import com.intellectual_systems.controller.GameEngine;
 import com.intellectual_systems.controller.GameState;
+import com.intellectual_systems.controller.Pager;
+import com.intellectual_systems.model.Question;
 
 /**
  *
@@ -29,31 +34,45 @@ public class QuestionSelectState implements GameState {
         System.out.println(gameEngine.getGameBoard().renderCategory(categoryName));
         System.out.println("Select a value from the category: " + categoryName);
        try {
-            int i;
-            for(i = 0; i < gameEngine.getCategoryByName(categoryName).getQuestions().size(); i++){
-                System.out.println((i + 1) + ". " + gameEngine.getCategoryByName(categoryName).getQuestions().get(i).getValue());
+            List<Question> questions = gameEngine.getAvailableQuestions(categoryName);
+            Pager pager = gameEngine.getQuestionPager();
+            int first = pager.getFirst(questions.size());
+            int end = pager.getEnd(questions.size());
+            boolean paged = pager.getPageCount(questions.size()) > 1;
+            for(int i = first; i < end; i++){
+                System.out.println((i + 1) + ". " + questions.get(i).getValue());
             }
-            System.out.print("\nEnter your choice (1-" + i + "): ");
-            int choice = Integer.parseInt(scanner.next());
+            if (paged) {
+                System.out.print("\nEnter your choice (" + (first + 1) + "-" + end + "), N for next page or P for previous page: ");
+            } else {
+                System.out.print("\nEnter your choice (1-" + end + "): ");
+            }
+            String input = scanner.next();
             scanner.nextLine(); 
+            if (paged && (input.equalsIgnoreCase("N") || input.equalsIgnoreCase("P"))) {
+                PageCommand pageCommand = new PageCommand(gameEngine, pager, questions.size(), input.equalsIgnoreCase("N") ? 1 : -1);
+                pageCommand.execute();
+                return;
+            }
+            int choice = Integer.parseInt(input);
 
-            if (!Character.isDigit(Integer.toString(choice).charAt(0)) || (choice < 1 || choice > i)) {
+            if (!Character.isDigit(Integer.toString(choice).charAt(0)) || (choice < 1 || choice > questions.size())) {
                 System.out.println("Invalid choice. Please select a valid question number.");
-                gameEngine.renderCurrentState();
                 return;
             }
             System.out.println("Question " + choice + " has been selected.");
             SelectQuestionCommand selectQuestionCommand = new SelectQuestionCommand(gameEngine, categoryName, choice - 1);
             selectQuestionCommand.execute();
+        } catch (NoSuchElementException e) {
+            // Input closed: let the engine's loop end the session
+            throw e;
         } catch(RuntimeException e) {
             System.out.println("An error occurred: " + e.getMessage());
-            gameEngine.renderCurrentState();
         }
     }
 
     @Override
-    public void renderNextState() {
-        gameEngine.setState(new AnswerState(gameEngine));
-        gameEngine.renderCurrentState();
+    public GameState renderNextState() {
+        return gameEngine.getState(AnswerState.class, AnswerState::new);
     }
 } 
\ No newline at end of file
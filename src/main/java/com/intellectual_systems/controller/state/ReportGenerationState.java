@@ -40,8 +40,7 @@ public class ReportGenerationState implements GameState {
     }
 
     @Override
-    public void renderNextState() {
-        gameEngine.setState(new GameOverState(gameEngine));
-        gameEngine.renderCurrentState();
+    public GameState renderNextState() {
+        return gameEngine.getState(GameOverState.class, GameOverState::new);
     }
 }
@@ -32,13 +32,14 @@ public class StartState implements GameState {
             String input = scanner.nextLine();
             StartCommand  startCommand = new StartCommand(gameEngine, input);
             startCommand.execute();
+        } else {
+            gameEngine.stop();
         }
     }
 
     @Override
-    public void renderNextState() {
-        gameEngine.setState(new LoadState(gameEngine));
-        gameEngine.renderCurrentState();
+    public GameState renderNextState() {
+        return gameEngine.getState(LoadState.class, LoadState::new);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.intellectual_systems.logging;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.intellectual_systems.parser.CsvTokenizer;
+
+/**
+ * Reads back the rows written by {@link CSVLogger}, header excluded.
+ *
+ * @author Vinayak
+ */
+public class CSVLogReader {
+    private final String filePath;
+    private final CsvTokenizer tokenizer;
+
+    public CSVLogReader(String filePath) {
+        this(filePath, CsvTokenizer.preferred());
+    }
+
+    public CSVLogReader(String filePath, CsvTokenizer tokenizer) {
+        this.filePath = filePath;
+        this.tokenizer = tokenizer;
+    }
+
+    public List<List<String>> readRows() {
+        List<List<String>> rows = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(Path.of(this.filePath), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            tokenizer.tokenize(buffer, 0, buffer.limit(), rows::add);
+        } catch (IOException e) {
+            System.err.println("Error reading CSV file: " + e.getMessage());
+        }
+        if (!rows.isEmpty()) {
+            rows.remove(0);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.intellectual_systems.model;
+
+/**
+ * The category names across a board and the point value of each row.
+ * Immutable, so a board builds it once and every snapshot of that board
+ * shares it.
+ *
+ * @author Jonathan
+ */
+public final class BoardLayout {
+    public static final BoardLayout EMPTY = new BoardLayout(new String[0], new int[0]);
+
+    private final String[] categoryNames;
+    private final int[] values;
+
+    // Takes ownership of the arrays; callers must not change them afterwards
+    BoardLayout(String[] categoryNames, int[] values) {
+        this.categoryNames = categoryNames;
+        this.values = values;
+    }
+
+    public int getColumns() {
+        return categoryNames.length;
+    }
+
+    public int getRows() {
+        return values.length;
+    }
+
+    public String getCategoryName(int col) {
+        return categoryNames[col];
+    }
+
+    public int getValue(int row) {
+        return values[row];
+    }
+}
@@ -5,48 +5,65 @@
 
 package com.intellectual_systems.model;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.intellectual_systems.util.IntHashMap;
 
 /**
+ * Questions are fixed when the category is built and handed out through a
+ * read-only view. A game never removes the questions it uses; its
+ * GameBoard records which ones are answered, so one loaded bank can back
+ * any number of games. Edits make a new category with {@link #withQuestion}.
  *
  * @author Jonathan
  */
 public class Category {
     private final String name;
     private final ArrayList<Question> questions = new ArrayList<>();
+    private final List<Question> questionsView = Collections.unmodifiableList(questions);
+    // First question in the list for each value
+    private final IntHashMap<Question> questionsByValue = new IntHashMap<>();
 
     public Category(String name) {
+        this(name, List.of());
+    }
+
+    public Category(String name, List<Question> questions) {
         this.name = name;
+        for (Question question : questions) {
+            this.questions.add(question);
+            this.questionsByValue.putIfAbsent(question.getValue(), question);
+        }
     }
 
     public String getName() {
         return name;
     }
 
-    public ArrayList<Question> getQuestions() {
-        return questions;
+    public List<Question> getQuestions() {
+        return questionsView;
     }
 
-    public void addQuestion(Question question) {
-        this.questions.add(question);
-    }
-
-    public void removeQuestion(Question question) {
-        this.questions.remove(question);
+    /**
+     * A copy of this category with {@code updated} in place of
+     * {@code current}, or this category if it does not hold {@code current}.
+     */
+    public Category withQuestion(Question current, Question updated) {
+        int index = this.questions.indexOf(current);
+        if (index < 0) {
+            return this;
+        }
+        List<Question> replaced = new ArrayList<>(this.questions);
+        replaced.set(index, updated);
+        return new Category(this.name, replaced);
     }
 
     public Question getQuestionByCategoryAndValue(String categoryName, int value) {
         if (!this.name.equals(categoryName)) {
             return null; // or throw an exception if preferred
         }
-        Category category = this;
-        if (category != null) {
-            for (Question question : category.getQuestions()) {
-                if (question.getValue() == value) {
-                    return question;
-                }
-            }
-        }
-        return null; // or throw an exception if preferred
+        return this.questionsByValue.get(value);
     }
 
     @Override
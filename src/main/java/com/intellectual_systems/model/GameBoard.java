@@ -5,71 +5,210 @@
 
 package com.intellectual_systems.model;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 
+import com.intellectual_systems.util.IntHashMap;
+
 /**
+ * Board cells are addressed by int column (category) and row (value)
+ * indexes, flattened to {@code row * cols + col}. Bit sets record which
+ * cells hold a question, which are still open and which have been
+ * answered, so the board needs no object per cell. These bits are the
+ * game's only record of consumed questions: the categories themselves
+ * are never changed, and {@link #reset()} reopens every cell. Rendered
+ * text is cached and patched one cell at a time as questions are answered.
  *
  * @author Jonathan
  */
 public class GameBoard {
-    private final String[][] board;
-    private final HashMap<String, Integer> indexes;
-    private final HashMap<Integer, String> questions;
+    private static final int CELL_WIDTH = 15;
+
+    private BoardLayout layout;
+    private final String[] valueLabels;
+    private final HashMap<String, Integer> columns;
+    private final IntHashMap<Integer> rowsByValue;
+    private final Question[] questions;
+    private final BitSet loaded;
+    private final BitSet available;
+    private final BitSet answered;
     private final int rows;
     private final int cols;
 
+    // Rendering caches
+    private final HashMap<Integer, String[]> paddedByWidth = new HashMap<>();
+    private final String[] categoryFrames;
+    private char[] frame;
+    private String frameText;
+    private int[] cellOffsets;
+    private int[] colWidths;
+
     public GameBoard(List<Category> categories) {
-        this.rows = categories.get(0).getQuestions().size() + 1; // +1 for category names
+        List<Question> firstColumn = categories.get(0).getQuestions();
+        this.rows = firstColumn.size();
         this.cols = categories.size();
-        board = new String[rows][cols];
-        indexes = new HashMap<>();
-        questions = new HashMap<>();
-        for (int i = 0; i < categories.size(); i++) {
-            indexes.put(categories.get(i).getName(), i);
+        String[] categoryNames = new String[cols];
+        int[] values = new int[rows];
+        valueLabels = new String[rows];
+        columns = new HashMap<>();
+        rowsByValue = new IntHashMap<>(rows);
+        for (int j = 0; j < cols; j++) {
+            categoryNames[j] = categories.get(j).getName();
+            columns.put(categoryNames[j], j);
         }
-        for (int i = 0; i < categories.get(0).getQuestions().size(); i++) {
-            indexes.put(categories.get(0).getQuestions().get(i).getValue() + "", i);
-            questions.put(categories.get(0).getQuestions().get(i).getValue(), categories.get(0).getQuestions().get(i).getQuestionText() + "");
+        for (int i = 0; i < rows; i++) {
+            values[i] = firstColumn.get(i).getValue();
+            valueLabels[i] = Integer.toString(values[i]);
+            rowsByValue.put(values[i], i);
         }
+        layout = new BoardLayout(categoryNames, values);
+        questions = new Question[rows * cols];
+        loaded = new BitSet(rows * cols);
+        available = new BitSet(rows * cols);
+        answered = new BitSet(rows * cols);
+        categoryFrames = new String[cols];
     }
 
     public void initializeBoard(List<Category> categories) {
+        String[] categoryNames = new String[cols];
+        int[] values = new int[rows];
+        for (int j = 0; j < cols; j++) {
+            categoryNames[j] = categories.get(j).getName();
+        }
         for (int i = 0; i < rows; i++) {
-            if(i != 0){
-                for (int j = 0; j < cols; j++) {
-                    board[i][j] = "";
-                }
+            values[i] = layout.getValue(i);
+        }
+        layout = new BoardLayout(categoryNames, values);
+        loaded.clear();
+        available.clear();
+        answered.clear();
+        Arrays.fill(categoryFrames, null);
+        frame = null;
+    }
+
+    /**
+     * Reopens every loaded cell for a new game on the same questions.
+     */
+    public void reset() {
+        available.clear();
+        available.or(loaded);
+        answered.clear();
+        Arrays.fill(categoryFrames, null);
+        frame = null;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return cols;
+    }
+
+    public String getCategoryName(int col) {
+        return layout.getCategoryName(col);
+    }
+
+    public int getValue(int row) {
+        return layout.getValue(row);
+    }
+
+    /**
+     * The category names and row values, shared by every snapshot of
+     * this board until {@link #initializeBoard(List)} renames the columns.
+     */
+    public BoardLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * A copy of the availability mask, indexed by {@code row * cols + col}.
+     */
+    public BitSet getAvailableCells() {
+        return (BitSet) available.clone();
+    }
+
+    /**
+     * Column index of the category, or -1 if it is not on the board.
+     */
+    public int getColumn(String category) {
+        Integer col = columns.get(category);
+        return col != null ? col : -1;
+    }
+
+    /**
+     * Row index of the value, or -1 if it is not on the board.
+     */
+    public int getRow(int value) {
+        Integer row = rowsByValue.get(value);
+        return row != null ? row : -1;
+    }
+
+    public boolean isAnswered(int col, int row) {
+        return answered.get(cell(col, row));
+    }
+
+    public boolean isAnswered(String category, int value) {
+        return answered.get(cell(category, value));
+    }
+
+    /**
+     * True if the category's column still holds an unanswered question.
+     */
+    public boolean hasOpenCells(String category) {
+        int col = getColumn(category);
+        if (col < 0) {
+            return false;
+        }
+        for (int cell = col; cell < rows * cols; cell += cols) {
+            if (available.get(cell)) {
+                return true;
             }
-            else{
-                for (int j = 0; j < cols; j++) {
-                    board[i][j] = categories.get(j).getName();
-                }
+        }
+        return false;
+    }
+
+    /**
+     * The questions in answered cells, in cell order.
+     */
+    public List<Question> getAnsweredQuestions() {
+        List<Question> result = new ArrayList<>(answered.cardinality());
+        for (int cell = answered.nextSetBit(0); cell >= 0; cell = answered.nextSetBit(cell + 1)) {
+            if (questions[cell] != null) {
+                result.add(questions[cell]);
             }
         }
+        return result;
+    }
+
+    /**
+     * Cells that still hold an unanswered question.
+     */
+    public int cellsRemaining() {
+        return available.cardinality();
     }
 
     public void setCell(String category, int value, Question question) {
-        Integer col = indexes.get(category);
-        Integer row = indexes.get(value + "");
-        if (col != null && row != null && row >= 0 && row < rows) {
-            board[row + 1][col] = question.getValue() + "";
-        } else {
-            throw new IndexOutOfBoundsException("Invalid category or value");
-        }
+        int cell = cell(category, value);
+        questions[cell] = question;
+        loaded.set(cell);
+        available.set(cell);
+        answered.clear(cell);
+        patch(cell);
     }
 
     public String renderQuestionValue(String category, int value) {
-        StringBuilder sb = new StringBuilder();
-        Integer col = indexes.get(category);
-        Integer row = indexes.get(value + "");
-        String questionText = questions.get(value);
-        if (col != null && row != null && row >= 0 && row < rows) {
-            sb.append("Value: ").append(value).append(", Question: ").append(questionText).append("\n");
-            return sb.toString();
-        } else {
+        int col = getColumn(category);
+        int row = getRow(value);
+        if (col < 0 || row < 0) {
             return "Invalid category or value";
         }
+        Question question = questions[row * cols + col];
+        String questionText = question != null ? question.getQuestionText() : null;
+        return "Value: " + value + ", Question: " + questionText + "\n";
     }
 
     public void loadQuestions(List<Category> categories) {
@@ -83,65 +222,115 @@ public class GameBoard {
     }
 
     public void clearCell(String category, int value) {
-        Integer col = indexes.get(category);
-        Integer row = indexes.get(value + "");
-        if (col != null && row != null && row >= 0 && row < rows) {
-            board[row + 1][col] = " ";
-        } else {
-            throw new IndexOutOfBoundsException("Invalid category or value");
+        setAnswered(cell(category, value), true);
+    }
+
+    /**
+     * Marks a cell, indexed by {@code row * cols + col}, answered or open
+     * again. Used to replay undo and redo onto the board.
+     */
+    public void setAnswered(int cell, boolean isAnswered) {
+        if (cell < 0 || cell >= rows * cols) {
+            throw new IndexOutOfBoundsException("Invalid cell: " + cell);
         }
-    }   
+        answered.set(cell, isAnswered);
+        available.set(cell, !isAnswered && loaded.get(cell));
+        patch(cell);
+    }
+
+    /**
+     * Index of the cell, {@code row * cols + col}, as used by
+     * {@link #getAvailableCells()} and {@link #setAnswered(int, boolean)}.
+     */
+    public int getCell(String category, int value) {
+        return cell(category, value);
+    }
 
     public String renderCategory(String category) {
-        StringBuilder sb = new StringBuilder();
-        Integer col = indexes.get(category);
+        Integer col = columns.get(category);
         if (col == null) {
             throw new IndexOutOfBoundsException("Invalid category");
         }
-        
+        if (categoryFrames[col] != null) {
+            return categoryFrames[col];
+        }
+
+        StringBuilder sb = new StringBuilder();
         sb.append("Category:").append(category).append("\n");
         sb.append("---------------------\n");
-        for (int i = 1; i < rows; i++) {
-            String cell = board[i][col] != null ? board[i][col] : " ";
-            int width = 15;
-            int pad = Math.max(0, width - cell.length());
-            int left = pad / 2;
-            int right = pad - left;
-            sb.append(" ".repeat(left)).append(cell).append(" ".repeat(right)).append("\n");
+        String[] padded = padded(CELL_WIDTH);
+        for (int i = 0; i < rows; i++) {
+            sb.append(padded[labelIndex(i * cols + col)]).append("\n");
         }
         sb.append("---------------------\n");
-        
-        return sb.toString();
+
+        categoryFrames[col] = sb.toString();
+        return categoryFrames[col];
     }
 
+    /**
+     * Returns the cached frame. It is laid out once; after that,
+     * setCell and clearCell overwrite only the affected cell's characters.
+     */
     public String renderEntireGameBoard() {
-        StringBuilder sb = new StringBuilder();
-        
-    // Header will be generated dynamically once we know the total table width
+        if (frame == null) {
+            buildFrame();
+        }
+        if (frameText == null) {
+            frameText = new String(frame);
+        }
+        return frameText;
+    }
+
+    /**
+     * Renders only the columns {@code firstCol} up to {@code firstCol + count},
+     * so the cost depends on the viewport rather than the whole board. A
+     * viewport covering every column is the cached full frame.
+     */
+    public String renderViewport(int firstCol, int count) {
+        int endCol = Math.min(cols, firstCol + count);
+        if (firstCol < 0 || firstCol >= endCol) {
+            throw new IndexOutOfBoundsException("Invalid viewport");
+        }
+        if (firstCol == 0 && endCol == cols) {
+            return renderEntireGameBoard();
+        }
+        String title = " Categories " + (firstCol + 1) + "-" + endCol + " of " + cols + " ";
+        return layout(firstCol, endCol, title, null).toString();
+    }
 
-        // Calculate column widths based on content
-        int[] colWidths = new int[cols];
+    private void buildFrame() {
+        colWidths = new int[cols];
         for (int j = 0; j < cols; j++) {
-            colWidths[j] = 15; // minimum width
-            for (int i = 0; i < rows; i++) {
-                String cell = board[i][j] != null ? board[i][j] : " ";
-                colWidths[j] = Math.max(colWidths[j], cell.length() + 2);
-            }
+            colWidths[j] = columnWidth(j);
         }
-        
+        cellOffsets = new int[rows * cols];
+        StringBuilder sb = layout(0, cols, " Current Game Board ", cellOffsets);
+
+        frame = new char[sb.length()];
+        sb.getChars(0, sb.length(), frame, 0);
+        frameText = null;
+    }
+
+    /**
+     * Lays out the columns [firstCol, endCol) under a centered title. If
+     * {@code offsets} is given, records where each cell's text starts.
+     */
+    private StringBuilder layout(int firstCol, int endCol, String title, int[] offsets) {
+        StringBuilder sb = new StringBuilder();
+
         // Build horizontal separator
         StringBuilder separator = new StringBuilder();
-        for (int j = 0; j < cols; j++) {
-            separator.append("-".repeat(colWidths[j]));
-            if (j < cols - 1) {
+        for (int j = firstCol; j < endCol; j++) {
+            separator.append("-".repeat(columnWidth(j)));
+            if (j < endCol - 1) {
                 separator.append("+");
             }
         }
         String horSeparator = separator.toString();
-        
+
                 // Build and append a dynamic header line centered on the table width
                 int totalWidth = horSeparator.length();
-                String title = " Current Game Board ";
                 int leftPad = Math.max(0, (totalWidth - title.length()) / 2);
                 int rightPad = Math.max(0, totalWidth - title.length() - leftPad);
                 sb.append("\n")
@@ -152,26 +341,86 @@ public class GameBoard {
 
                 // Add top separator
                 sb.append(horSeparator).append("\n");
-        
-        // Add rows
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                String cell = board[i][j] != null ? board[i][j] : " ";
-                int width = colWidths[j];
-                int pad = Math.max(0, width - cell.length());
-                int left = pad / 2;
-                int right = pad - left;
-                sb.append(" ".repeat(left)).append(cell).append(" ".repeat(right));
-                if (j < cols - 1) {
+
+        // Category names, then one line per value row
+        for (int i = -1; i < rows; i++) {
+            for (int j = firstCol; j < endCol; j++) {
+                if (i < 0) {
+                    sb.append(pad(layout.getCategoryName(j), columnWidth(j)));
+                } else {
+                    if (offsets != null) {
+                        offsets[i * cols + j] = sb.length();
+                    }
+                    sb.append(padded(columnWidth(j))[labelIndex(i * cols + j)]);
+                }
+                if (j < endCol - 1) {
                     sb.append("|");
                 }
             }
             sb.append("\n");
-            
+
             // Add separator after each row (including after last row for clean border)
             sb.append(horSeparator).append("\n");
         }
-        
-        return sb.toString();
+        return sb;
+    }
+
+    // Column widths depend only on the category names: value labels are
+    // at most 11 characters, so they never widen a column past the minimum
+    private int columnWidth(int col) {
+        return Math.max(CELL_WIDTH, layout.getCategoryName(col).length() + 2);
+    }
+
+    /**
+     * Brings the cached renderings up to date after one cell changed.
+     */
+    private void patch(int cell) {
+        int col = cell % cols;
+        categoryFrames[col] = null;
+        if (frame != null) {
+            padded(colWidths[col])[labelIndex(cell)].getChars(0, colWidths[col], frame, cellOffsets[cell]);
+            frameText = null;
+        }
+    }
+
+    /**
+     * Padded forms of every label a cell can show at this width: the value
+     * labels by row, then the answered blank, then the empty unset cell.
+     */
+    private String[] padded(int width) {
+        return paddedByWidth.computeIfAbsent(width, w -> {
+            String[] padded = new String[rows + 2];
+            for (int i = 0; i < rows; i++) {
+                padded[i] = pad(valueLabels[i], w);
+            }
+            padded[rows] = pad(" ", w);
+            padded[rows + 1] = pad("", w);
+            return padded;
+        });
+    }
+
+    private int labelIndex(int cell) {
+        if (answered.get(cell)) {
+            return rows;
+        }
+        return available.get(cell) ? cell / cols : rows + 1;
+    }
+
+    private static String pad(String cell, int width) {
+        int pad = Math.max(0, width - cell.length());
+        int left = pad / 2;
+        int right = pad - left;
+        return " ".repeat(left) + cell + " ".repeat(right);
+    }
+
+    private int cell(int col, int row) {
+        if (col < 0 || col >= cols || row < 0 || row >= rows) {
+            throw new IndexOutOfBoundsException("Invalid category or value");
+        }
+        return row * cols + col;
+    }
+
+    private int cell(String category, int value) {
+        return cell(getColumn(category), getRow(value));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,136 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.intellectual_systems.model;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Immutable copy of the board availability, scores and current turn at
+ * one point in the game. The board layout is shared rather than copied. The engine publishes a new snapshot after every
+ * command, so other threads can read a consistent view without locks.
+ *
+ * @author Jonathan
+ */
+public final class GameSnapshot {
+    public static final GameSnapshot EMPTY = new GameSnapshot(0, BoardLayout.EMPTY, new BitSet(), new String[0], new int[0],
+            null, null, 0, 0);
+
+    private final long version;
+    private final BoardLayout layout;
+    private final BitSet available;
+    private final int cellsRemaining;
+    private final String[] usernames;
+    private final int[] scores;
+    private final String currentPlayer;
+    private final String currentCategory;
+    private final int currentQuestionValue;
+    private final int turnNumber;
+
+    private GameSnapshot(long version, BoardLayout layout, BitSet available, String[] usernames, int[] scores,
+            String currentPlayer, String currentCategory, int currentQuestionValue, int turnNumber) {
+        this.version = version;
+        this.layout = layout;
+        this.available = available;
+        this.cellsRemaining = available.cardinality();
+        this.usernames = usernames;
+        this.scores = scores;
+        this.currentPlayer = currentPlayer;
+        this.currentCategory = currentCategory;
+        this.currentQuestionValue = currentQuestionValue;
+        this.turnNumber = turnNumber;
+    }
+
+    /**
+     * Copies the parts of the game a reader may look at. Any argument may
+     * be null before that part of the game has been set up.
+     */
+    public static GameSnapshot capture(long version, GameBoard board, List<Player> players, Turn turn) {
+        BoardLayout layout = BoardLayout.EMPTY;
+        BitSet available = new BitSet();
+        if (board != null) {
+            layout = board.getLayout();
+            available = board.getAvailableCells();
+        }
+
+        String[] usernames = new String[0];
+        int[] scores = new int[0];
+        if (players != null) {
+            usernames = new String[players.size()];
+            scores = new int[players.size()];
+            for (int i = 0; i < usernames.length; i++) {
+                usernames[i] = players.get(i).getUsername();
+                scores[i] = players.get(i).getScore();
+            }
+        }
+
+        if (turn == null) {
+            return new GameSnapshot(version, layout, available, usernames, scores, null, null, 0, 0);
+        }
+        return new GameSnapshot(version, layout, available, usernames, scores,
+                turn.getPlayer().getUsername(), turn.getCurrentCategory(), turn.getCurrentQuestionValue(), turn.getTurnNumber());
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public BoardLayout getLayout() {
+        return layout;
+    }
+
+    public int getColumns() {
+        return layout.getColumns();
+    }
+
+    public int getRows() {
+        return layout.getRows();
+    }
+
+    public String getCategoryName(int col) {
+        return layout.getCategoryName(col);
+    }
+
+    public int getValue(int row) {
+        return layout.getValue(row);
+    }
+
+    public boolean isAvailable(int col, int row) {
+        return available.get(row * layout.getColumns() + col);
+    }
+
+    public int getCellsRemaining() {
+        return cellsRemaining;
+    }
+
+    public int getPlayerCount() {
+        return usernames.length;
+    }
+
+    public String getUsername(int player) {
+        return usernames[player];
+    }
+
+    public int getScore(int player) {
+        return scores[player];
+    }
+
+    public String getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    public String getCurrentCategory() {
+        return currentCategory;
+    }
+
+    public int getCurrentQuestionValue() {
+        return currentQuestionValue;
+    }
+
+    public int getTurnNumber() {
+        return turnNumber;
+    }
+}
@@ -8,6 +8,8 @@ package com.intellectual_systems.model;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.intellectual_systems.util.PersistentList;
+
 /**
  *
  * @author Jonathan
@@ -16,7 +18,8 @@ public class GameSummary {
     private final String gameId;
     private final List<String> playerNames;
     private final List<Integer> playerScores = new ArrayList<>();
-    private final List<String> turnList = new ArrayList<>();
+    // Newest turn first; undo swaps in an earlier list rather than editing this one
+    private PersistentList<String> turns = PersistentList.empty();
 
     public GameSummary(String gameId, List<Player> players) {
         this.gameId = gameId;
@@ -27,7 +30,15 @@ public class GameSummary {
     }
 
     public void addTurn(String turn){
-        this.turnList.add(turn);
+        this.turns = this.turns.push(turn);
+    }
+
+    public PersistentList<String> getTurns() {
+        return this.turns;
+    }
+
+    public void setTurns(PersistentList<String> turns) {
+        this.turns = turns;
     }
 
     public void addScores(List<Player> players){
@@ -53,6 +64,7 @@ public class GameSummary {
         sb.append("\n\nGameplay Summary:\n");
         sb.append("-----------------\n\n");
 
+        List<String> turnList = turns.toList();
         if(turnList.isEmpty()){
             sb.append("No turns were played.\n");
             return sb.toString();
@@ -5,6 +5,8 @@
 
 package com.intellectual_systems.model;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  *
@@ -14,17 +16,28 @@ public class Question {
     private final String questionText;
     private final String answer;
     private final String category;
-    private final ArrayList<String> choices = new ArrayList<>();
+    private final List<String> choices;
     private final int value;
 
-    public Question(String questionText, ArrayList<String> choices, String answer, String category, int value) {
+    public Question(String questionText, List<String> choices, String answer, String category, int value) {
         this.questionText = questionText;
-        this.choices.addAll(choices);
+        this.choices = Collections.unmodifiableList(new ArrayList<>(choices));
         this.answer = answer;
         this.category = category;
         this.value = value;
     }
 
+    /**
+     * For subclasses that supply the question body on demand.
+     */
+    protected Question(String category, int value) {
+        this.questionText = null;
+        this.choices = null;
+        this.answer = null;
+        this.category = category;
+        this.value = value;
+    }
+
     public String getQuestionText() {
         return questionText;
     }
@@ -41,7 +54,10 @@ public class Question {
         return value;
     }
 
-    public ArrayList<String> getChoices() {
+    /**
+     * Read-only; questions are shared by every game on the bank.
+     */
+    public List<String> getChoices() {
         return choices;
     }
 
@@ -0,0 +1,223 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.intellectual_systems.model;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps a bank's question data off the Java heap, one column per field.
+ * Questions are numbered 0..n-1 in category order; each distinct string
+ * is stored once as UTF-8 and referenced by id. The returned categories
+ * hold small StoredQuestion views that decode text on demand. Recently
+ * decoded strings are kept in a small cache indexed by string id, so text
+ * shared between questions, such as common choices, is decoded once.
+ * Memory is released once the store and all of its views are unreachable.
+ *
+ * @author Jonathan
+ */
+public class QuestionStore {
+    private static final long ALIGNMENT = 8;
+    private static final int MAX_DECODED = 4096;
+
+    private final String[] categoryNames;
+    private final int[] categoryStarts;
+
+    // Question columns, indexed by question id
+    private final MemorySegment values;
+    private final MemorySegment textIds;
+    private final MemorySegment answerIds;
+    private final MemorySegment choiceStarts; // n + 1 entries
+    // Choice column: string ids, grouped by question
+    private final MemorySegment choiceIds;
+    // String table: offsets into the UTF-8 bytes, count + 1 entries
+    private final MemorySegment stringOffsets;
+    private final MemorySegment stringBytes;
+
+    private final int questionCount;
+
+    // Direct-mapped by string id. Entries are immutable, so threads may
+    // race on a slot without ever seeing a string paired with the wrong id
+    private final Decoded[] decoded;
+    private final int decodedMask;
+
+    private static final class Decoded {
+        final int stringId;
+        final String value;
+
+        Decoded(int stringId, String value) {
+            this.stringId = stringId;
+            this.value = value;
+        }
+    }
+
+    public QuestionStore(List<Category> categories) {
+        // First pass: number the distinct strings and size every column
+        Map<String, Integer> stringIds = new HashMap<>();
+        List<byte[]> strings = new ArrayList<>();
+        long byteCount = 0;
+        int questions = 0;
+        int choices = 0;
+        for (Category category : categories) {
+            for (Question question : category.getQuestions()) {
+                questions++;
+                byteCount += register(stringIds, strings, question.getQuestionText());
+                byteCount += register(stringIds, strings, question.getAnswer());
+                for (String choice : question.getChoices()) {
+                    byteCount += register(stringIds, strings, choice);
+                    choices++;
+                }
+            }
+        }
+        this.questionCount = questions;
+
+        Arena arena = Arena.ofAuto();
+        this.values = arena.allocate(4L * questions, ALIGNMENT);
+        this.textIds = arena.allocate(4L * questions, ALIGNMENT);
+        this.answerIds = arena.allocate(4L * questions, ALIGNMENT);
+        this.choiceStarts = arena.allocate(4L * (questions + 1), ALIGNMENT);
+        this.choiceIds = arena.allocate(4L * choices, ALIGNMENT);
+        this.stringOffsets = arena.allocate(8L * (strings.size() + 1), ALIGNMENT);
+        this.stringBytes = arena.allocate(Math.max(1, byteCount), ALIGNMENT);
+
+        long offset = 0;
+        for (int s = 0; s < strings.size(); s++) {
+            byte[] bytes = strings.get(s);
+            stringOffsets.setAtIndex(ValueLayout.JAVA_LONG, s, offset);
+            MemorySegment.copy(bytes, 0, stringBytes, ValueLayout.JAVA_BYTE, offset, bytes.length);
+            offset += bytes.length;
+        }
+        stringOffsets.setAtIndex(ValueLayout.JAVA_LONG, strings.size(), offset);
+        this.decoded = new Decoded[Math.min(MAX_DECODED, Integer.highestOneBit(Math.max(1, strings.size() * 2 - 1)))];
+        this.decodedMask = decoded.length - 1;
+
+        // Second pass: fill the question and choice columns
+        this.categoryNames = new String[categories.size()];
+        this.categoryStarts = new int[categories.size() + 1];
+        int id = 0;
+        int choice = 0;
+        for (int c = 0; c < categories.size(); c++) {
+            categoryNames[c] = categories.get(c).getName();
+            categoryStarts[c] = id;
+            for (Question question : categories.get(c).getQuestions()) {
+                values.setAtIndex(ValueLayout.JAVA_INT, id, question.getValue());
+                textIds.setAtIndex(ValueLayout.JAVA_INT, id, stringIds.get(text(question.getQuestionText())));
+                answerIds.setAtIndex(ValueLayout.JAVA_INT, id, stringIds.get(text(question.getAnswer())));
+                choiceStarts.setAtIndex(ValueLayout.JAVA_INT, id, choice);
+                for (String value : question.getChoices()) {
+                    choiceIds.setAtIndex(ValueLayout.JAVA_INT, choice++, stringIds.get(text(value)));
+                }
+                id++;
+            }
+        }
+        categoryStarts[categories.size()] = id;
+        choiceStarts.setAtIndex(ValueLayout.JAVA_INT, id, choice);
+    }
+
+    public int size() {
+        return questionCount;
+    }
+
+    /**
+     * Off-heap bytes held by all columns.
+     */
+    public long byteSize() {
+        return values.byteSize() + textIds.byteSize() + answerIds.byteSize() + choiceStarts.byteSize()
+                + choiceIds.byteSize() + stringOffsets.byteSize() + stringBytes.byteSize();
+    }
+
+    /**
+     * A fresh set of categories over the stored questions. Each call gets
+     * its own list, so callers can reorder or replace categories without
+     * affecting the store or each other.
+     */
+    public ArrayList<Category> getCategories() {
+        ArrayList<Category> categories = new ArrayList<>(categoryNames.length);
+        for (int c = 0; c < categoryNames.length; c++) {
+            List<Question> questions = new ArrayList<>(categoryStarts[c + 1] - categoryStarts[c]);
+            for (int id = categoryStarts[c]; id < categoryStarts[c + 1]; id++) {
+                questions.add(new StoredQuestion(this, id, categoryNames[c], getValue(id)));
+            }
+            categories.add(new Category(categoryNames[c], questions));
+        }
+        return categories;
+    }
+
+    public int getValue(int id) {
+        return values.getAtIndex(ValueLayout.JAVA_INT, id);
+    }
+
+    public String getQuestionText(int id) {
+        return readString(textIds.getAtIndex(ValueLayout.JAVA_INT, id));
+    }
+
+    public String getAnswer(int id) {
+        return readString(answerIds.getAtIndex(ValueLayout.JAVA_INT, id));
+    }
+
+    /**
+     * An unmodifiable view of the question's choices. Each choice is
+     * decoded when it is read.
+     */
+    public List<String> getChoices(int id) {
+        int from = choiceStarts.getAtIndex(ValueLayout.JAVA_INT, id);
+        int to = choiceStarts.getAtIndex(ValueLayout.JAVA_INT, id + 1);
+        return new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                if (index < 0 || index >= to - from) {
+                    throw new IndexOutOfBoundsException("Invalid choice: " + index);
+                }
+                return readString(choiceIds.getAtIndex(ValueLayout.JAVA_INT, from + index));
+            }
+
+            @Override
+            public int size() {
+                return to - from;
+            }
+        };
+    }
+
+    private String readString(int stringId) {
+        Decoded cached = decoded[stringId & decodedMask];
+        if (cached != null && cached.stringId == stringId) {
+            return cached.value;
+        }
+        String value = decode(stringId);
+        decoded[stringId & decodedMask] = new Decoded(stringId, value);
+        return value;
+    }
+
+    private String decode(int stringId) {
+        long from = stringOffsets.getAtIndex(ValueLayout.JAVA_LONG, stringId);
+        int length = (int) (stringOffsets.getAtIndex(ValueLayout.JAVA_LONG, stringId + 1) - from);
+        byte[] bytes = new byte[length];
+        MemorySegment.copy(stringBytes, ValueLayout.JAVA_BYTE, from, bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long register(Map<String, Integer> stringIds, List<byte[]> strings, String value) {
+        String key = text(value);
+        if (stringIds.containsKey(key)) {
+            return 0;
+        }
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        stringIds.put(key, strings.size());
+        strings.add(bytes);
+        return bytes.length;
+    }
+
+    private static String text(String value) {
+        return value == null ? "" : value;
+    }
+}
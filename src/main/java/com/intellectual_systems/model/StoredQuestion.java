@@ -0,0 +1,40 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.intellectual_systems.model;
+
+import java.util.List;
+
+/**
+ * A question whose text, answer and choices live in a QuestionStore.
+ * Only the store reference, id, category and value are on the heap.
+ *
+ * @author Jonathan
+ */
+class StoredQuestion extends Question {
+    private final QuestionStore store;
+    private final int id;
+
+    StoredQuestion(QuestionStore store, int id, String category, int value) {
+        super(category, value);
+        this.store = store;
+        this.id = id;
+    }
+
+    @Override
+    public String getQuestionText() {
+        return store.getQuestionText(id);
+    }
+
+    @Override
+    public String getAnswer() {
+        return store.getAnswer(id);
+    }
+
+    @Override
+    public List<String> getChoices() {
+        return store.getChoices(id);
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.intellectual_systems.parser;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.intellectual_systems.model.Category;
+import com.intellectual_systems.model.Question;
+
+/**
+ * Groups visited questions into categories in a single pass, keeping
+ * categories in the order they first appear in the file.
+ *
+ * @author Jonathan
+ */
+public class CategoryCollector implements QuestionVisitor {
+    private final LinkedHashMap<String, List<Question>> categories = new LinkedHashMap<>();
+
+    @Override
+    public void visit(Question question) {
+        categories.computeIfAbsent(question.getCategory(), name -> new ArrayList<>()).add(question);
+    }
+
+    public ArrayList<Category> getCategories() {
+        ArrayList<Category> built = new ArrayList<>(categories.size());
+        for (Map.Entry<String, List<Question>> entry : categories.entrySet()) {
+            built.add(new Category(entry.getKey(), entry.getValue()));
+        }
+        return built;
+    }
+}
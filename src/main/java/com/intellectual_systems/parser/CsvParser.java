@@ -7,12 +7,26 @@ package com.intellectual_systems.parser;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
 
 import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 
-import com.intellectual_systems.model.Category;
 import com.intellectual_systems.model.Question;
 
 /**
@@ -20,51 +34,236 @@ import com.intellectual_systems.model.Question;
  * @author Jonathan
  */
 public class CsvParser implements GameDataParser {
+    /** Files at least this large are worth loading in memory-mapped mode. */
+    public static final long MAPPED_THRESHOLD = 64L * 1024 * 1024;
+
+    private static final String[] OPTION_HEADERS = {"OptionA", "OptionB", "OptionC", "OptionD"};
+    private static final long SCAN_WINDOW = 1L << 28;
+    private static final long MAX_CHUNK = 1L << 30;
+
+    private final boolean memoryMapped;
+    private final CsvTokenizer tokenizer;
+
+    public CsvParser() {
+        this(false);
+    }
+
+    public CsvParser(boolean memoryMapped) {
+        this(memoryMapped, null);
+    }
+
+    /**
+     * @param tokenizer byte-level backend to use instead of commons-csv, or
+     *                  null for commons-csv. Tokenizer backends always read
+     *                  the file through a mapping.
+     */
+    public CsvParser(boolean memoryMapped, CsvTokenizer tokenizer) {
+        this.memoryMapped = memoryMapped;
+        this.tokenizer = tokenizer;
+    }
 
     @Override
-    public ArrayList<Category> parse(String filePath) {
+    public void parse(String filePath, QuestionVisitor visitor) {
+        if (memoryMapped || tokenizer != null) {
+            parseMapped(filePath, visitor);
+            return;
+        }
         // Implementation for parsing CSV files
-        ArrayList<Category> categories = new ArrayList<>();
-        ArrayList<Question> questions = new ArrayList<>();
- 
         System.out.println("Parsing CSV file: " + filePath);
-        // Add actual parsing logic here
 
-         try {
-            Reader in = new FileReader(filePath);
-            Iterable<CSVRecord> records = CSVFormat.EXCEL.builder().setHeader().setSkipHeaderRecord(true).get().parse(in);
+         try (Reader in = new FileReader(filePath);
+              CSVParser records = CSVFormat.EXCEL.builder().setHeader().setSkipHeaderRecord(true).get().parse(in)) {
+            int[] columns = resolveColumns(records.getHeaderNames());
+            StringPool pool = new StringPool();
             for (CSVRecord record : records) {
-                ArrayList< String> choices = new ArrayList<>();
-                for (char i = 'A'; i < 'E'; i++) {
-                    choices.add(record.get("Option"+String.valueOf(i)));
-                }
+                visitor.visit(toQuestion(record::get, columns, pool));
+            }
+        } catch (IOException e ) {
+        }
+    }
+
+    /**
+     * Maps the file, splits it at record boundaries and parses the chunks
+     * on the common fork-join pool. Chunks reach the visitor in file order
+     * as each finishes, and only a few are parsed ahead of the visitor, so
+     * a large file is never held whole.
+     */
+    private void parseMapped(String filePath, QuestionVisitor visitor) {
+        System.out.println("Parsing CSV file (memory-mapped): " + filePath);
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            int parallelism = memoryMapped ? ForkJoinPool.getCommonPoolParallelism() * 4 : 1;
+            int chunkCount = (int) Math.max(parallelism, size / MAX_CHUNK + 1);
+            List<Long> boundaries = splitAtRecords(channel, size, Math.max(1, size / chunkCount));
+            if (boundaries.size() < 2) {
+                return;
+            }
+
+            String headerLine = decode(channel, 0, boundaries.get(0));
+            String[] header;
+            try (CSVParser headerParser = CSVFormat.EXCEL.parse(new StringReader(headerLine))) {
+                header = headerParser.getRecords().get(0).values();
+            }
+            CSVFormat chunkFormat = CSVFormat.EXCEL.builder().setHeader(header).get();
+            int[] columns = resolveColumns(Arrays.asList(header));
+            StringPool pool = new StringPool();
 
-                
-                Question question = new Question(
-                    record.get("Question"), // questionText
-                    choices, // choices
-                    record.get("CorrectAnswer"), // answer
-                    record.get("Category"), // category
-                    Integer.parseInt(record.get("Value"))
-                );
-                
-                if(categories.stream().noneMatch(c -> c.getName().equals(record.get("Category")))) {
-                    categories.add(new Category(record.get("Category")));
+            if (!memoryMapped) {
+                for (int i = 0; i + 1 < boundaries.size(); i++) {
+                    parseChunk(channel, boundaries.get(i), boundaries.get(i + 1), chunkFormat, tokenizer, columns, pool, visitor);
                 }
+                return;
+            }
+            int ahead = ForkJoinPool.getCommonPoolParallelism() * 2;
+            ArrayDeque<ForkJoinTask<List<Question>>> inFlight = new ArrayDeque<>();
+            try {
+                int next = 0;
+                while (next + 1 < boundaries.size() || !inFlight.isEmpty()) {
+                    while (next + 1 < boundaries.size() && inFlight.size() < ahead) {
+                        long start = boundaries.get(next);
+                        long end = boundaries.get(++next);
+                        inFlight.add(ForkJoinPool.commonPool().submit(() -> {
+                            List<Question> questions = new ArrayList<>();
+                            parseChunk(channel, start, end, chunkFormat, tokenizer, columns, pool, questions::add);
+                            return questions;
+                        }));
+                    }
+                    for (Question question : inFlight.poll().join()) {
+                        visitor.visit(question);
+                    }
+                }
+            } finally {
+                for (ForkJoinTask<List<Question>> task : inFlight) {
+                    task.cancel(true);
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Error reading CSV file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns record boundaries: the end of the header line followed by the
+     * first line break at or after every {@code chunkSize} bytes, and the
+     * file size. Line breaks inside quoted fields are skipped. Each region
+     * of {@code chunkSize} bytes is scanned on its own thread, noting its
+     * quote parity and its first line break after an even and after an odd
+     * number of its own quotes; a short serial pass over the regions then
+     * picks the break that is really outside quotes.
+     */
+    private static List<Long> splitAtRecords(FileChannel channel, long size, long chunkSize) throws IOException {
+        int regions = (int) Math.max(1, (size + chunkSize - 1) / chunkSize);
+        long[][] scans = new long[regions][];
+        try {
+            IntStream.range(0, regions).parallel().forEach(r -> {
+                long start = r * chunkSize;
+                long end = Math.min(size, start + chunkSize);
+                scans[r] = scanRegion(channel, start, end);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
 
-                questions.add(question);
+        List<Long> boundaries = new ArrayList<>();
+        boolean quoted = false;
+        for (int r = 0; r < regions; r++) {
+            long lineBreak = scans[r][quoted ? 1 : 0];
+            if (lineBreak >= 0) {
+                boundaries.add(lineBreak + 1);
             }
+            quoted ^= scans[r][2] != 0;
+        }
+        if (boundaries.isEmpty() || boundaries.get(boundaries.size() - 1) < size) {
+            boundaries.add(size);
+        }
+        return boundaries;
+    }
 
-            for (Category category : categories) {
-                for (Question question : questions) {
-                    if (question.getCategory().equals(category.getName())) {
-                        category.addQuestion(question);
+    /**
+     * Scans [start, end) assuming it starts outside quotes. Returns the
+     * first line break seen after an even number of quotes, the first seen
+     * after an odd number (-1 if none), and 1 if the region holds an odd
+     * number of quotes, else 0.
+     */
+    private static long[] scanRegion(FileChannel channel, long start, long end) {
+        long[] result = {-1, -1, 0};
+        int parity = 0;
+        try {
+            for (long windowStart = start; windowStart < end; windowStart += SCAN_WINDOW) {
+                long windowSize = Math.min(SCAN_WINDOW, end - windowStart);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowSize);
+                for (int i = 0; i < windowSize; i++) {
+                    byte b = window.get(i);
+                    if (b == '"') {
+                        parity ^= 1;
+                    } else if (b == '\n' && result[parity] < 0) {
+                        result[parity] = windowStart + i;
                     }
                 }
             }
-        } catch (IOException e ) {
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        result[2] = parity;
+        return result;
+    }
+
+    private static String decode(FileChannel channel, long from, long to) throws IOException {
+        return StandardCharsets.UTF_8.decode(channel.map(FileChannel.MapMode.READ_ONLY, from, to - from)).toString();
+    }
+
+    /**
+     * Looks up each field's column once per file instead of resolving
+     * header names on every record.
+     */
+    private static int[] resolveColumns(List<String> header) {
+        int[] columns = new int[4 + OPTION_HEADERS.length];
+        columns[0] = header.indexOf("Question");
+        columns[1] = header.indexOf("CorrectAnswer");
+        columns[2] = header.indexOf("Category");
+        columns[3] = header.indexOf("Value");
+        for (int i = 0; i < OPTION_HEADERS.length; i++) {
+            columns[4 + i] = header.indexOf(OPTION_HEADERS[i]);
+        }
+        return columns;
+    }
+
+    private static Question toQuestion(IntFunction<String> record, int[] columns, StringPool pool) {
+        ArrayList<String> choices = new ArrayList<>(OPTION_HEADERS.length);
+        for (int i = 4; i < columns.length; i++) {
+            choices.add(pool.intern(record.apply(columns[i])));
+        }
+        // Empty trailing option cells mean the question has fewer choices
+        while (!choices.isEmpty() && choices.get(choices.size() - 1).isEmpty()) {
+            choices.remove(choices.size() - 1);
+        }
+        return new Question(
+            record.apply(columns[0]), // questionText
+            choices, // choices
+            pool.intern(record.apply(columns[1])), // answer
+            pool.intern(record.apply(columns[2])), // category
+            Integer.parseInt(record.apply(columns[3]).trim())
+        );
+    }
+
+    /**
+     * Parses the records in [start, end) of the mapped file.
+     */
+    private static void parseChunk(FileChannel channel, long start, long end, CSVFormat format, CsvTokenizer tokenizer, int[] columns, StringPool pool, QuestionVisitor visitor) {
+        try {
+            if (tokenizer != null) {
+                MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+                tokenizer.tokenize(chunk, 0, chunk.limit(), fields -> visitor.visit(toQuestion(fields::get, columns, pool)));
+                return;
+            }
+            try (CSVParser records = format.parse(new StringReader(decode(channel, start, end)))) {
+                for (CSVRecord record : records) {
+                    visitor.visit(toQuestion(record::get, columns, pool));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        return categories;
     }
 
 }
@@ -0,0 +1,152 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.intellectual_systems.parser;
+
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Splits UTF-8 CSV bytes into records using the same rules as
+ * {@code CSVFormat.EXCEL}. Subclasses only decide how to find the next
+ * comma, quote or line break; the field state machine is shared.
+ *
+ * @author Jonathan
+ */
+public abstract class CsvTokenizer {
+    protected static final byte COMMA = ',';
+    protected static final byte QUOTE = '"';
+    protected static final byte CR = '\r';
+    protected static final byte LF = '\n';
+
+    /**
+     * Returns the vector backend when the jdk.incubator.vector module has
+     * been added to the runtime, otherwise the scalar one.
+     */
+    public static CsvTokenizer preferred() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            return new VectorCsvTokenizer();
+        }
+        return new ScalarCsvTokenizer();
+    }
+
+    /**
+     * Returns the index of the first comma, quote, CR or LF in
+     * [from, to), or {@code to} if there is none.
+     */
+    protected abstract int nextSpecial(ByteBuffer buffer, int from, int to, Scan scan);
+
+    /**
+     * Whether {@link Scan#segment} should be set, for backends that read
+     * the buffer as a MemorySegment.
+     */
+    protected boolean usesSegment() {
+        return false;
+    }
+
+    /**
+     * Per-call state a backend may use to remember the block it scanned last.
+     */
+    protected static final class Scan {
+        // The whole buffer, indexed like its absolute get methods; null unless usesSegment()
+        final MemorySegment segment;
+        int base = -1;
+        long mask;
+
+        Scan(ByteBuffer buffer, boolean segment) {
+            this.segment = segment ? MemorySegment.ofBuffer(buffer.duplicate().clear()) : null;
+        }
+    }
+
+    public void tokenize(ByteBuffer buffer, int from, int to, Consumer<List<String>> records) {
+        Scan scan = new Scan(buffer, usesSegment());
+        List<String> fields = new ArrayList<>();
+        int pos = from;
+        boolean pendingField = false;
+
+        while (pos < to) {
+            String field;
+            if (buffer.get(pos) == QUOTE) {
+                StringBuilder value = new StringBuilder();
+                int start = pos + 1;
+                while (true) {
+                    int end = nextQuote(buffer, start, to, scan);
+                    value.append(decode(buffer, start, end));
+                    if (end + 1 < to && buffer.get(end + 1) == QUOTE) {
+                        value.append('"');
+                        start = end + 2;
+                    } else {
+                        pos = Math.min(end + 1, to);
+                        break;
+                    }
+                }
+                // Like EXCEL, keep any characters between the closing quote and the delimiter
+                int end = nextDelimiter(buffer, pos, to, scan);
+                value.append(decode(buffer, pos, end));
+                pos = end;
+                field = value.toString();
+            } else {
+                int end = nextDelimiter(buffer, pos, to, scan);
+                field = decode(buffer, pos, end);
+                pos = end;
+            }
+            fields.add(field);
+            pendingField = false;
+
+            if (pos >= to) {
+                break;
+            }
+            byte b = buffer.get(pos++);
+            if (b == COMMA) {
+                pendingField = true;
+            } else {
+                if (b == CR && pos < to && buffer.get(pos) == LF) {
+                    pos++;
+                }
+                records.accept(fields);
+                fields = new ArrayList<>();
+            }
+        }
+
+        if (pendingField) {
+            fields.add("");
+        }
+        if (!fields.isEmpty()) {
+            records.accept(fields);
+        }
+    }
+
+    private int nextQuote(ByteBuffer buffer, int from, int to, Scan scan) {
+        int i = nextSpecial(buffer, from, to, scan);
+        while (i < to && buffer.get(i) != QUOTE) {
+            i = nextSpecial(buffer, i + 1, to, scan);
+        }
+        return i;
+    }
+
+    private int nextDelimiter(ByteBuffer buffer, int from, int to, Scan scan) {
+        int i = nextSpecial(buffer, from, to, scan);
+        while (i < to && buffer.get(i) == QUOTE) {
+            i = nextSpecial(buffer, i + 1, to, scan);
+        }
+        return i;
+    }
+
+    private static String decode(ByteBuffer buffer, int from, int to) {
+        if (from >= to) {
+            return "";
+        }
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + from, to - from, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[to - from];
+        buffer.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -13,5 +13,14 @@ import com.intellectual_systems.model.Category;
  * @author Jonathan
  */
 public interface GameDataParser {
-    ArrayList<Category> parse(String filePath);
+    /**
+     * Streams every question in the file to the visitor as soon as it is read.
+     */
+    void parse(String filePath, QuestionVisitor visitor);
+
+    default ArrayList<Category> parse(String filePath) {
+        CategoryCollector collector = new CategoryCollector();
+        parse(filePath, collector);
+        return collector.getCategories();
+    }
 }
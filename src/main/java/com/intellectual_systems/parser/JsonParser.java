@@ -4,16 +4,16 @@
  */
 
 package com.intellectual_systems.parser;
+import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.Reader;
 import java.util.ArrayList;
 
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
+import org.json.simple.parser.ContentHandler;
 import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 
-import com.intellectual_systems.model.Category;
 import com.intellectual_systems.model.Question;
 
 
@@ -24,52 +24,107 @@ import com.intellectual_systems.model.Question;
 public class JsonParser implements GameDataParser {
 
     @Override
-    public ArrayList<Category> parse(String filePath) {
-        // Implementation for parsing JSON files will go here
-        ArrayList<Category> categories = new ArrayList<>();
-        ArrayList<Question> questions = new ArrayList<>();
- 
+    public void parse(String filePath, QuestionVisitor visitor) {
         System.out.println("Parsing JSON file: " + filePath);
-        // Add actual parsing logic here
 
-         try {
-            JSONArray data = (JSONArray) new JSONParser().parse(new FileReader(filePath));
-            for (Object obj : data) {
-                JSONObject record = (JSONObject) obj;
+         try (Reader in = new BufferedReader(new FileReader(filePath))) {
+            new JSONParser().parse(in, new QuestionHandler(visitor));
+        } catch (IOException | ParseException e) {
+            e.printStackTrace(); // Add this for debugging
+        }
+    }
 
-                ArrayList< String> choices = new ArrayList<>();
-                JSONObject choicesObject = (JSONObject) record.get("Options");
-                for (Object choiceObj : choicesObject.values()) {
-                    choices.add((String) choiceObj);
-                }
+    /**
+     * Maps tokenizer events straight onto Question fields, one question
+     * object at a time, without building JSONObject maps.
+     */
+    private static class QuestionHandler implements ContentHandler {
+        private final QuestionVisitor visitor;
+        private final StringPool pool = new StringPool();
+        private int depth = 0;
+        private String key;
 
-                Question question = new Question(
-                    (String) record.get("Question"), // questionText
-                    choices, // choices
-                    (String) record.get("CorrectAnswer"), // answer
-                    (String) record.get("Category"), // category
-                    ((Long) record.get("Value")).intValue() // value
-                );
+        private String category;
+        private String questionText;
+        private String answer;
+        private int value;
+        private ArrayList<String> choices;
 
-                if(categories.stream().noneMatch(c -> c.getName().equals(record.get("Category")))) {
-                    categories.add(new Category((String) record.get("Category")));
-                }
+        QuestionHandler(QuestionVisitor visitor) {
+            this.visitor = visitor;
+        }
 
-                questions.add(question);
+        @Override
+        public void startJSON() {
+        }
+
+        @Override
+        public void endJSON() {
+        }
+
+        @Override
+        public boolean startObject() {
+            depth++;
+            if (depth == 1) {
+                category = null;
+                questionText = null;
+                answer = null;
+                value = 0;
+                choices = new ArrayList<>();
             }
-            
-            for (Category category : categories) {
-                for (Question question : questions) {
-                    if (question.getCategory().equals(category.getName())) {
-                        category.addQuestion(question);
-                    }
-                }
+            return true;
+        }
+
+        @Override
+        public boolean endObject() {
+            if (depth == 1) {
+                visitor.visit(new Question(questionText, choices, answer, category, value));
             }
+            depth--;
+            return true;
+        }
 
-        } catch (IOException | ParseException e) {
-            e.printStackTrace(); // Add this for debugging
+        @Override
+        public boolean startObjectEntry(String key) {
+            this.key = key;
+            return true;
+        }
+
+        @Override
+        public boolean endObjectEntry() {
+            return true;
+        }
+
+        @Override
+        public boolean startArray() {
+            return true;
+        }
+
+        @Override
+        public boolean endArray() {
+            return true;
+        }
+
+        @Override
+        public boolean primitive(Object primitive) {
+            if (depth == 2) {
+                // Inside "Options": keep choices in the order their keys appear
+                choices.add(pool.intern((String) primitive));
+                return true;
+            }
+            if (depth != 1) {
+                return true;
+            }
+            switch (key) {
+                case "Category" -> category = pool.intern((String) primitive);
+                case "Question" -> questionText = (String) primitive;
+                case "CorrectAnswer" -> answer = pool.intern((String) primitive);
+                case "Value" -> value = ((Number) primitive).intValue();
+                default -> {
+                }
+            }
+            return true;
         }
-        return categories;
     }
-       
+
 }
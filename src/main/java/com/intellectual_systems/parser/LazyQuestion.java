@@ -0,0 +1,67 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.intellectual_systems.parser;
+
+import java.nio.MappedByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.intellectual_systems.model.Question;
+
+/**
+ * A question whose text, choices and answer stay in the mapped .qbank file
+ * until first asked for. Only category, value and the blob offset are held
+ * per question; bodies go through a small shared LRU.
+ *
+ * @author Jonathan
+ */
+class LazyQuestion extends Question {
+    private final BodyCache bodies;
+    private final int offset;
+
+    LazyQuestion(BodyCache bodies, int offset, String category, int value) {
+        super(category, value);
+        this.bodies = bodies;
+        this.offset = offset;
+    }
+
+    @Override
+    public String getQuestionText() {
+        return bodies.get(this).getQuestionText();
+    }
+
+    @Override
+    public String getAnswer() {
+        return bodies.get(this).getAnswer();
+    }
+
+    @Override
+    public List<String> getChoices() {
+        return bodies.get(this).getChoices();
+    }
+
+    static class BodyCache {
+        static final int CAPACITY = 64;
+
+        private final MappedByteBuffer buffer;
+        private final Map<Integer, Question> recent = new LinkedHashMap<>(CAPACITY, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Question> eldest) {
+                return size() > CAPACITY;
+            }
+        };
+
+        BodyCache(MappedByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        synchronized Question get(LazyQuestion question) {
+            return recent.computeIfAbsent(question.offset,
+                offset -> QBankParser.readQuestion(buffer, offset, question.getCategory(), question.getValue(), null));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.intellectual_systems.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.intellectual_systems.model.Category;
+import com.intellectual_systems.model.Question;
+
+/**
+ * Parses several banks at once on a fixed-size pool and merges them into
+ * one category list. Files are merged in the order given, not the order
+ * they finish, so the result does not depend on thread timing.
+ *
+ * @author Jonathan
+ */
+public class MultiBankLoader {
+    private final ParseCache parseCache;
+    private final int threads;
+
+    public MultiBankLoader(ParseCache parseCache) {
+        this(parseCache, Math.max(2, Runtime.getRuntime().availableProcessors()));
+    }
+
+    public MultiBankLoader(ParseCache parseCache, int threads) {
+        this.parseCache = parseCache;
+        this.threads = threads;
+    }
+
+    /**
+     * Categories with the same name in different files are combined, with
+     * questions from earlier files first. Files that cannot be recognised
+     * or read are reported and skipped.
+     */
+    public ArrayList<Category> load(List<String> filePaths) {
+        CategoryCollector merged = new CategoryCollector();
+        if (filePaths.isEmpty()) {
+            return merged.getCategories();
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, filePaths.size()));
+        try {
+            List<Future<ArrayList<Category>>> results = new ArrayList<>(filePaths.size());
+            for (String filePath : filePaths) {
+                results.add(executor.submit(() -> loadOne(filePath)));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                try {
+                    for (Category category : results.get(i).get()) {
+                        for (Question question : category.getQuestions()) {
+                            merged.visit(question);
+                        }
+                    }
+                } catch (ExecutionException e) {
+                    System.err.println("Error loading " + filePaths.get(i) + ": " + e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+        return merged.getCategories();
+    }
+
+    private ArrayList<Category> loadOne(String filePath) {
+        GameDataParser parser = ParserRegistry.forFile(filePath);
+        if (parser == null) {
+            System.err.println("Skipping unreadable bank: " + filePath);
+            return new ArrayList<>();
+        }
+        if (parser instanceof QBankParser) {
+            // Compiled banks are already cheap to open
+            return parser.parse(filePath);
+        }
+        return parseCache.load(filePath, parser);
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.intellectual_systems.parser;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.intellectual_systems.model.Category;
+import com.intellectual_systems.model.QuestionStore;
+
+/**
+ * Two-tier cache of parsed banks keyed by content hash. Repeat loads of an
+ * unchanged file skip parsing: path, size and mtime are checked first and
+ * the file is only rehashed when those change. Evicted or cold entries are
+ * kept on disk as compiled .qbank files. The memory tier holds banks in
+ * off-heap QuestionStores, so its limit counts native, not heap, bytes.
+ *
+ * @author Jonathan
+ */
+public class ParseCache {
+    public static final long DEFAULT_MEMORY_LIMIT = 256L * 1024 * 1024;
+    public static final long DEFAULT_DISK_LIMIT = 1024L * 1024 * 1024;
+
+    private final long memoryLimit;
+    private final long diskLimit;
+    private final File diskDirectory;
+
+    private final Map<String, FileStamp> stamps = new HashMap<>();
+    private final LinkedHashMap<String, Entry> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes = 0;
+    private int hits = 0;
+    private int misses = 0;
+
+    public ParseCache() {
+        this(new File(System.getProperty("java.io.tmpdir"), "int_sys_bank_cache"), DEFAULT_MEMORY_LIMIT, DEFAULT_DISK_LIMIT);
+    }
+
+    public ParseCache(File diskDirectory, long memoryLimit, long diskLimit) {
+        this.diskDirectory = diskDirectory;
+        this.memoryLimit = memoryLimit;
+        this.diskLimit = diskLimit;
+    }
+
+    /**
+     * Returns the bank's categories, parsing with {@code parser} only if no
+     * tier holds this content. Callers get their own Category lists, so
+     * consuming questions in a game never touches the cached copy.
+     * Hashing, parsing and reading the disk tier run outside the lock, so
+     * several banks can be loaded through one cache at the same time.
+     */
+    public ArrayList<Category> load(String filePath, GameDataParser parser) {
+        String hash;
+        try {
+            hash = contentHash(Path.of(filePath).toAbsolutePath().normalize());
+        } catch (IOException e) {
+            synchronized (this) {
+                misses++;
+            }
+            return parser.parse(filePath);
+        }
+
+        synchronized (this) {
+            Entry entry = memory.get(hash);
+            if (entry != null) {
+                hits++;
+                return entry.store.getCategories();
+            }
+        }
+
+        QuestionStore cold = loadFromDisk(hash);
+        synchronized (this) {
+            if (cold != null) {
+                hits++;
+                // Another thread may have cached the same bank while this one read the disk
+                if (!memory.containsKey(hash)) {
+                    put(hash, cold);
+                }
+                return memory.get(hash).store.getCategories();
+            }
+            misses++;
+        }
+
+        ArrayList<Category> categories = parser.parse(filePath);
+        if (categories.isEmpty()) {
+            return categories;
+        }
+        QuestionStore store = new QuestionStore(categories);
+        synchronized (this) {
+            put(hash, store);
+        }
+        storeOnDisk(hash, categories);
+        return store.getCategories();
+    }
+
+    public synchronized int getHitCount() {
+        return hits;
+    }
+
+    public synchronized int getMissCount() {
+        return misses;
+    }
+
+    public synchronized long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "Parse cache: " + hits + " hits, " + misses + " misses";
+    }
+
+    private String contentHash(Path path) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        String key = path.toString();
+        synchronized (this) {
+            FileStamp stamp = stamps.get(key);
+            if (stamp != null && stamp.size == attributes.size() && stamp.modified.equals(attributes.lastModifiedTime())) {
+                return stamp.hash;
+            }
+        }
+        String hash = sha256(path);
+        synchronized (this) {
+            stamps.put(key, new FileStamp(attributes.size(), attributes.lastModifiedTime(), hash));
+        }
+        return hash;
+    }
+
+    private static String sha256(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[1 << 16];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private void put(String hash, QuestionStore store) {
+        Entry entry = new Entry(store);
+        Entry previous = memory.put(hash, entry);
+        if (previous != null) {
+            memoryBytes -= previous.bytes;
+        }
+        memoryBytes += entry.bytes;
+
+        Iterator<Entry> eldest = memory.values().iterator();
+        while (memoryBytes > memoryLimit && memory.size() > 1) {
+            memoryBytes -= eldest.next().bytes;
+            eldest.remove();
+        }
+    }
+
+    private QuestionStore loadFromDisk(String hash) {
+        File file = new File(diskDirectory, hash + ".qbank");
+        if (!file.isFile()) {
+            return null;
+        }
+        ArrayList<Category> categories = new QBankParser().parse(file.getPath());
+        if (categories.isEmpty()) {
+            return null;
+        }
+        file.setLastModified(System.currentTimeMillis());
+        return new QuestionStore(categories);
+    }
+
+    /**
+     * Runs without the cache lock. The compiler moves each file into place
+     * atomically, so concurrent readers see a whole .qbank or none.
+     */
+    private void storeOnDisk(String hash, List<Category> categories) {
+        if (!diskDirectory.isDirectory() && !diskDirectory.mkdirs()) {
+            return;
+        }
+        try {
+            QBankCompiler.compile(categories, new File(diskDirectory, hash + ".qbank").getPath());
+        } catch (IOException e) {
+            System.err.println("Error writing parse cache: " + e.getMessage());
+            return;
+        }
+
+        File[] files = diskDirectory.listFiles((dir, name) -> name.endsWith(".qbank"));
+        if (files == null) {
+            return;
+        }
+        long total = 0;
+        for (File file : files) {
+            total += file.length();
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (int i = 0; i < files.length - 1 && total > diskLimit; i++) {
+            total -= files[i].length();
+            files[i].delete();
+        }
+    }
+
+    private static class FileStamp {
+        final long size;
+        final FileTime modified;
+        final String hash;
+
+        FileStamp(long size, FileTime modified, String hash) {
+            this.size = size;
+            this.modified = modified;
+            this.hash = hash;
+        }
+    }
+
+    private static class Entry {
+        final QuestionStore store;
+        final long bytes;
+
+        Entry(QuestionStore store) {
+            this.store = store;
+            this.bytes = store.byteSize();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.intellectual_systems.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Picks a parser from a bank's first bytes rather than its extension or a
+ * menu choice, and expands directories and globs into sorted file lists.
+ *
+ * @author Jonathan
+ */
+public class ParserRegistry {
+    private static final int SNIFF_LENGTH = 512;
+
+    private ParserRegistry() {
+    }
+
+    /**
+     * Returns the parser for the file's content, or null if it cannot be
+     * read. Anything that is not XML, JSON or a compiled bank is read as CSV.
+     */
+    public static GameDataParser forFile(String filePath) {
+        byte[] head = new byte[SNIFF_LENGTH];
+        int length;
+        long size;
+        try (InputStream in = Files.newInputStream(Path.of(filePath))) {
+            length = in.readNBytes(head, 0, head.length);
+            size = Files.size(Path.of(filePath));
+        } catch (IOException e) {
+            return null;
+        }
+
+        if (length >= 4 && ((head[0] & 0xFF) << 24 | (head[1] & 0xFF) << 16 | (head[2] & 0xFF) << 8 | (head[3] & 0xFF)) == QBankCompiler.MAGIC) {
+            return new QBankParser(true);
+        }
+        int i = 0;
+        if (length >= 3 && head[0] == (byte) 0xEF && head[1] == (byte) 0xBB && head[2] == (byte) 0xBF) {
+            i = 3; // UTF-8 byte order mark
+        }
+        while (i < length && Character.isWhitespace(head[i])) {
+            i++;
+        }
+        if (i < length) {
+            switch (head[i]) {
+                case '<' -> {
+                    return new XmlParser();
+                }
+                case '[', '{' -> {
+                    return new JsonParser();
+                }
+                default -> {
+                }
+            }
+        }
+        return new CsvParser(size >= CsvParser.MAPPED_THRESHOLD);
+    }
+
+    /**
+     * Expands a file, a directory (its regular, non-hidden files) or a glob
+     * such as {@code banks/*.json} or {@code banks/**} into paths sorted
+     * lexicographically, so merged boards come out the same every time.
+     */
+    public static List<String> expand(String pattern) throws IOException {
+        Path path = Path.of(pattern);
+        List<String> files = new ArrayList<>();
+        if (!containsGlob(pattern)) {
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> children = Files.list(path)) {
+                    children.filter(Files::isRegularFile)
+                            .filter(child -> !child.getFileName().toString().startsWith("."))
+                            .forEach(child -> files.add(child.toString()));
+                }
+            } else if (Files.isRegularFile(path)) {
+                files.add(pattern);
+            }
+        } else {
+            // Walk from the deepest directory that has no glob characters
+            Path base = path.isAbsolute() ? path.getRoot() : Path.of("");
+            for (Path part : path) {
+                if (containsGlob(part.toString())) {
+                    break;
+                }
+                base = base.resolve(part);
+            }
+            if (Files.isDirectory(base)) {
+                PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+                boolean relativeToCwd = base.toString().isEmpty();
+                Path start = relativeToCwd ? Path.of(".") : base;
+                try (Stream<Path> walk = Files.walk(start)) {
+                    walk.filter(Files::isRegularFile)
+                            .map(file -> relativeToCwd ? start.relativize(file) : file)
+                            .filter(matcher::matches)
+                            .forEach(file -> files.add(file.toString()));
+                }
+            }
+        }
+        files.sort(null);
+        return files;
+    }
+
+    private static boolean containsGlob(String pattern) {
+        for (int i = 0; i < pattern.length(); i++) {
+            switch (pattern.charAt(i)) {
+                case '*', '?', '[', '{' -> {
+                    return true;
+                }
+                default -> {
+                }
+            }
+        }
+        return false;
+    }
+}
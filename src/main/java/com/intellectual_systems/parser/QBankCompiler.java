@@ -0,0 +1,139 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.intellectual_systems.parser;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import com.intellectual_systems.model.Category;
+import com.intellectual_systems.model.Question;
+
+/**
+ * Writes categories to the binary .qbank layout read by {@link QBankParser}:
+ * <pre>
+ * header      magic, version, categoryCount, questionCount
+ * directory   per category: firstQuestion, questionCount, name
+ * value index per question: value, absolute offset of its blob
+ * blobs       per question: text, choiceCount, choices..., answer
+ * </pre>
+ * Integers are big-endian; strings are an int byte length followed by UTF-8.
+ *
+ * @author Jonathan
+ */
+public class QBankCompiler {
+    static final int MAGIC = 0x51424E4B; // "QBNK"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int INDEX_ENTRY_SIZE = 12;
+
+    public static void compile(GameDataParser parser, String sourcePath, String targetPath) throws IOException {
+        compile(parser.parse(sourcePath), targetPath);
+    }
+
+    /**
+     * Writes to a temporary file beside the target and moves it into place,
+     * so a reader never maps a half-written bank.
+     */
+    public static void compile(List<Category> categories, String targetPath) throws IOException {
+        Path target = Path.of(targetPath).toAbsolutePath();
+        Path temporary = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            write(categories, temporary);
+            try {
+                Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static void write(List<Category> categories, Path path) throws IOException {
+        // Every string is encoded once up front; the offsets come from the same bytes that get written
+        int questionCount = 0;
+        long directorySize = 0;
+        byte[][] names = new byte[categories.size()][];
+        for (int c = 0; c < categories.size(); c++) {
+            names[c] = utf8(categories.get(c).getName());
+            questionCount += categories.get(c).getQuestions().size();
+            directorySize += 12 + names[c].length;
+        }
+        byte[][][] blobs = new byte[questionCount][][];
+        int q = 0;
+        for (Category category : categories) {
+            for (Question question : category.getQuestions()) {
+                List<String> choices = question.getChoices();
+                byte[][] blob = new byte[choices.size() + 2][];
+                blob[0] = utf8(question.getQuestionText());
+                for (int i = 0; i < choices.size(); i++) {
+                    blob[i + 1] = utf8(choices.get(i));
+                }
+                blob[blob.length - 1] = utf8(question.getAnswer());
+                blobs[q++] = blob;
+            }
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(categories.size());
+            out.writeInt(questionCount);
+
+            int first = 0;
+            for (int c = 0; c < categories.size(); c++) {
+                int size = categories.get(c).getQuestions().size();
+                out.writeInt(first);
+                out.writeInt(size);
+                writeString(out, names[c]);
+                first += size;
+            }
+
+            long offset = HEADER_SIZE + directorySize + (long) questionCount * INDEX_ENTRY_SIZE;
+            q = 0;
+            for (Category category : categories) {
+                for (Question question : category.getQuestions()) {
+                    out.writeInt(question.getValue());
+                    out.writeLong(offset);
+                    offset += blobLength(blobs[q++]);
+                }
+            }
+
+            for (byte[][] blob : blobs) {
+                writeString(out, blob[0]);
+                out.writeInt(blob.length - 2);
+                for (int i = 1; i < blob.length; i++) {
+                    writeString(out, blob[i]);
+                }
+            }
+        }
+    }
+
+    // Text, choice count, choices and answer, each string with its length prefix
+    private static long blobLength(byte[][] blob) {
+        long length = 4;
+        for (byte[] bytes : blob) {
+            length += 4 + bytes.length;
+        }
+        return length;
+    }
+
+    private static void writeString(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] utf8(String value) {
+        return (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.intellectual_systems.parser;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Objects;
+
+import com.intellectual_systems.model.Question;
+
+/**
+ * Loads banks written by {@link QBankCompiler}. The file is memory-mapped
+ * and read by offset; no text parsing is involved. In lazy mode only the
+ * value index is read up front and question bodies are decoded on demand.
+ *
+ * @author Jonathan
+ */
+public class QBankParser implements GameDataParser {
+    private final boolean lazy;
+
+    public QBankParser() {
+        this(false);
+    }
+
+    public QBankParser(boolean lazy) {
+        this.lazy = lazy;
+    }
+
+    @Override
+    public void parse(String filePath, QuestionVisitor visitor) {
+        System.out.println("Loading compiled bank: " + filePath);
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.limit() < QBankCompiler.HEADER_SIZE || buffer.getInt(0) != QBankCompiler.MAGIC) {
+                throw new IOException("Not a compiled question bank");
+            }
+            if (buffer.getInt(4) != QBankCompiler.VERSION) {
+                throw new IOException("Unsupported question bank version " + buffer.getInt(4));
+            }
+            int categoryCount = buffer.getInt(8);
+            int questionCount = buffer.getInt(12);
+            if (categoryCount < 0 || questionCount < 0) {
+                throw new IOException("Corrupt question bank header");
+            }
+
+            // Check every count, length and offset before visiting anything, so a truncated
+            // or damaged bank is rejected whole instead of yielding part of its questions
+            String[] names = new String[categoryCount];
+            int[] counts = new int[categoryCount];
+            long total = 0;
+            int position = QBankCompiler.HEADER_SIZE;
+            for (int c = 0; c < categoryCount; c++) {
+                checkRange(buffer, position, 12);
+                counts[c] = buffer.getInt(position + 4);
+                int nameLength = buffer.getInt(position + 8);
+                if (counts[c] < 0 || nameLength < 0) {
+                    throw new IOException("Corrupt question bank directory");
+                }
+                checkRange(buffer, position + 12, nameLength);
+                names[c] = readString(buffer, position + 12, nameLength);
+                position = Math.toIntExact(position + 12L + nameLength);
+                total += counts[c];
+            }
+            if (total != questionCount) {
+                throw new IOException("Corrupt question bank directory");
+            }
+
+            checkRange(buffer, position, (long) questionCount * QBankCompiler.INDEX_ENTRY_SIZE);
+            int blobs = position + questionCount * QBankCompiler.INDEX_ENTRY_SIZE;
+            int[] values = new int[questionCount];
+            int[] offsets = new int[questionCount];
+            for (int q = 0, index = position; q < questionCount; q++, index += QBankCompiler.INDEX_ENTRY_SIZE) {
+                values[q] = buffer.getInt(index);
+                long offset = buffer.getLong(index + 4);
+                if (offset < blobs || offset >= buffer.limit()) {
+                    throw new IOException("Corrupt question bank index");
+                }
+                offsets[q] = (int) offset;
+            }
+
+            Question[] questions = new Question[questionCount];
+            LazyQuestion.BodyCache bodies = lazy ? new LazyQuestion.BodyCache(buffer) : null;
+            StringPool pool = new StringPool();
+            for (int c = 0, q = 0; c < categoryCount; c++) {
+                for (int end = q + counts[c]; q < end; q++) {
+                    questions[q] = lazy
+                            ? new LazyQuestion(bodies, offsets[q], names[c], values[q])
+                            : readQuestion(buffer, offsets[q], names[c], values[q], pool);
+                }
+            }
+            for (Question question : questions) {
+                visitor.visit(question);
+            }
+        } catch (IOException | IndexOutOfBoundsException | BufferUnderflowException | IllegalArgumentException | ArithmeticException e) {
+            System.err.println("Error reading question bank: " + e);
+        }
+    }
+
+    private static void checkRange(MappedByteBuffer buffer, long offset, long length) throws IOException {
+        if (offset < 0 || length < 0 || offset + length > buffer.limit()) {
+            throw new IOException("Question bank is truncated");
+        }
+    }
+
+    /**
+     * @param pool interns choices and the answer; null to keep fresh strings
+     */
+    static Question readQuestion(MappedByteBuffer buffer, int offset, String category, int value, StringPool pool) {
+        int length = buffer.getInt(offset);
+        String questionText = readString(buffer, offset + 4, length);
+        offset += 4 + length;
+
+        int choiceCount = buffer.getInt(offset);
+        offset += 4;
+        ArrayList<String> choices = new ArrayList<>(choiceCount);
+        for (int i = 0; i < choiceCount; i++) {
+            length = buffer.getInt(offset);
+            String choice = readString(buffer, offset + 4, length);
+            choices.add(pool != null ? pool.intern(choice) : choice);
+            offset += 4 + length;
+        }
+
+        length = buffer.getInt(offset);
+        String answer = readString(buffer, offset + 4, length);
+        if (pool != null) {
+            answer = pool.intern(answer);
+        }
+        return new Question(questionText, choices, answer, category, value);
+    }
+
+    private static String readString(MappedByteBuffer buffer, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, buffer.limit());
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
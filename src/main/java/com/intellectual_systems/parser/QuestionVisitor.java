@@ -0,0 +1,19 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Interface.java to edit this template
+ */
+
+package com.intellectual_systems.parser;
+
+import com.intellectual_systems.model.Question;
+
+/**
+ * Receives questions one at a time as a parser reads them, so callers never
+ * need the whole bank in memory.
+ *
+ * @author Jonathan
+ */
+@FunctionalInterface
+public interface QuestionVisitor {
+    void visit(Question question);
+}
@@ -0,0 +1,27 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.intellectual_systems.parser;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Byte-at-a-time fallback for runtimes without the Vector API.
+ *
+ * @author Jonathan
+ */
+public class ScalarCsvTokenizer extends CsvTokenizer {
+
+    @Override
+    protected int nextSpecial(ByteBuffer buffer, int from, int to, Scan scan) {
+        for (int i = from; i < to; i++) {
+            byte b = buffer.get(i);
+            if (b == COMMA || b == QUOTE || b == LF || b == CR) {
+                return i;
+            }
+        }
+        return to;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.intellectual_systems.parser;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out one canonical String per distinct value seen while parsing a
+ * bank, so repeated category names, choices such as "True"/"False" and
+ * answer letters share a single instance. Safe for the parallel CSV loader.
+ *
+ * @author Jonathan
+ */
+public class StringPool {
+    // String object plus its byte[] header with compact (Latin-1) strings
+    private static final int STRING_OVERHEAD = 40;
+
+    private final ConcurrentHashMap<String, String> pool = new ConcurrentHashMap<>();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong savedBytes = new AtomicLong();
+
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String canonical = pool.putIfAbsent(value, value);
+        if (canonical == null) {
+            return value;
+        }
+        duplicates.incrementAndGet();
+        savedBytes.addAndGet(STRING_OVERHEAD + value.length());
+        return canonical;
+    }
+
+    public int size() {
+        return pool.size();
+    }
+
+    public long getDuplicateCount() {
+        return duplicates.get();
+    }
+
+    /**
+     * Estimated heap no longer retained by the duplicates that were dropped.
+     */
+    public long getSavedBytes() {
+        return savedBytes.get();
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.intellectual_systems.parser;
+
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Compares a whole vector of bytes (32 or 64, depending on the CPU)
+ * against the four structural characters at once. The buffer is read in
+ * place through a MemorySegment, so mapped files are not copied. Requires
+ * {@code --add-modules jdk.incubator.vector}.
+ *
+ * @author Jonathan
+ */
+public class VectorCsvTokenizer extends CsvTokenizer {
+    // Masks are read as a long, so wider vectors (e.g. long SVE) are capped at 64 lanes
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED.length() > Long.SIZE
+            ? ByteVector.SPECIES_512 : ByteVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+
+    @Override
+    protected boolean usesSegment() {
+        return true;
+    }
+
+    @Override
+    protected int nextSpecial(ByteBuffer buffer, int from, int to, Scan scan) {
+        int i = from;
+        while (i + LANES <= to) {
+            if (scan.base < 0 || i < scan.base || i >= scan.base + LANES) {
+                scan.base = i;
+                scan.mask = specialMask(scan.segment, i);
+            }
+            // Reuse the mask of the block already loaded; each byte is compared once
+            long bits = scan.mask >>> (i - scan.base);
+            if (bits != 0) {
+                return i + Long.numberOfTrailingZeros(bits);
+            }
+            i = scan.base + LANES;
+        }
+        for (; i < to; i++) {
+            byte b = buffer.get(i);
+            if (b == COMMA || b == QUOTE || b == LF || b == CR) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    private static long specialMask(MemorySegment segment, int from) {
+        ByteVector bytes = ByteVector.fromMemorySegment(SPECIES, segment, from, ByteOrder.nativeOrder());
+        VectorMask<Byte> special = bytes.eq(COMMA)
+            .or(bytes.eq(QUOTE))
+            .or(bytes.eq(LF))
+            .or(bytes.eq(CR));
+        return special.toLong();
+    }
+}
@@ -5,21 +5,16 @@
 
 package com.intellectual_systems.parser;
 
-import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
-
-import com.intellectual_systems.model.Category;
 import com.intellectual_systems.model.Question;
 
 
@@ -28,67 +23,67 @@ import com.intellectual_systems.model.Question;
  * @author Jonathan
  */
 public class XmlParser implements GameDataParser {
+    private static final XMLInputFactory FACTORY = XMLInputFactory.newInstance();
+
+    static {
+        FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        FACTORY.setProperty(XMLInputFactory.IS_COALESCING, true);
+    }
 
     @Override
-    public ArrayList<Category> parse(String filePath) {
-        // Implementation for parsing XML files
-        ArrayList<Category> categories = new ArrayList<>();
-        ArrayList<Question> questions = new ArrayList<>();
- 
+    public void parse(String filePath, QuestionVisitor visitor) {
+        // Pull parser: only the QuestionItem currently being read is held in memory
         System.out.println("Parsing XML file: " + filePath);
-        try {
-            File xmlFile = new File(filePath);
-            DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
-            Document doc = dBuilder.parse(xmlFile);
-            doc.getDocumentElement().normalize();
-
-            NodeList nList = doc.getElementsByTagName("QuestionItem");
-            NodeList optionsList = doc.getElementsByTagName("Options");
-
-            for (int temp = 0; temp < nList.getLength(); temp++) {
-                Node nNode = nList.item(temp);
-                Node optionNode = optionsList.item(temp);
-                if (nNode.getNodeType() == Node.ELEMENT_NODE) {
-                    Element eElement = (Element) nNode;
-
-                    ArrayList<String> choices = new ArrayList<>();
-
-                    if (optionNode.getNodeType() == Node.ELEMENT_NODE) {
-                        Element optionElement = (Element) optionNode;
+        try (InputStream in = new FileInputStream(filePath)) {
+            XMLStreamReader reader = FACTORY.createXMLStreamReader(in);
+            try {
+                StringPool pool = new StringPool();
+                String category = null;
+                String questionText = null;
+                String answer = null;
+                int value = 0;
+                ArrayList<String> choices = new ArrayList<>();
+                boolean inOptions = false;
 
-                        for (int i = 0; i < optionNode.getChildNodes().getLength(); i++) {
-                            char optionChar = (char)('A' + i);
-                            choices.add(optionElement.getElementsByTagName("Option" + optionChar).item(0).getTextContent());
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        String name = reader.getLocalName();
+                        switch (name) {
+                            case "QuestionItem" -> {
+                                category = null;
+                                questionText = null;
+                                answer = null;
+                                value = 0;
+                                choices = new ArrayList<>();
+                            }
+                            case "Options" -> inOptions = true;
+                            case "Category" -> category = pool.intern(reader.getElementText());
+                            case "Value" -> value = Integer.parseInt(reader.getElementText().trim());
+                            case "QuestionText" -> questionText = reader.getElementText();
+                            case "CorrectAnswer" -> answer = pool.intern(reader.getElementText());
+                            default -> {
+                                if (inOptions) {
+                                    choices.add(pool.intern(reader.getElementText()));
+                                }
+                            }
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        String name = reader.getLocalName();
+                        if (name.equals("Options")) {
+                            inOptions = false;
+                        } else if (name.equals("QuestionItem")) {
+                            visitor.visit(new Question(questionText, choices, answer, category, value));
                         }
-                    }
-                    
-                    Question question = new Question(
-                        eElement.getElementsByTagName("QuestionText").item(0).getTextContent(), // questionText
-                        choices, // choices
-                        eElement.getElementsByTagName("CorrectAnswer").item(0).getTextContent(), // answer
-                        eElement.getElementsByTagName("Category").item(0).getTextContent(), // category
-                        Integer.parseInt(eElement.getElementsByTagName("Value").item(0).getTextContent()) // value
-                    );
-
-                    if(categories.stream().noneMatch(c -> c.getName().equals(question.getCategory()))) {
-                        categories.add(new Category(question.getCategory()));
-                    }
-                    questions.add(question);
-                }
-            }
-            
-            for (Category category : categories) {
-                for (Question question : questions) {
-                    if (question.getCategory().equals(category.getName())) {
-                        category.addQuestion(question);
                     }
                 }
+            } finally {
+                reader.close();
             }
-        } catch (ParserConfigurationException | SAXException | IOException e) {
-            
+        } catch (XMLStreamException | IOException e) {
+
         }
-        return categories;
     }
 
 }
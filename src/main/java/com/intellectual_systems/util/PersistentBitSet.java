@@ -0,0 +1,128 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.intellectual_systems.util;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable bit set. The 64-bit words sit in the leaves of a binary trie,
+ * so set copies only the path to one leaf and shares the rest with the
+ * set it came from. Comparing two related sets skips every shared subtree.
+ *
+ * @author Jonathan
+ */
+public final class PersistentBitSet {
+    public static final PersistentBitSet EMPTY = new PersistentBitSet(null, 0, 0);
+
+    private final Node root;
+    // The trie has 2^depth leaves; depth 0 means the root is the only leaf
+    private final int depth;
+    private final int cardinality;
+
+    private PersistentBitSet(Node root, int depth, int cardinality) {
+        this.root = root;
+        this.depth = depth;
+        this.cardinality = cardinality;
+    }
+
+    public boolean get(int index) {
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("Negative bit index: " + index);
+        }
+        int word = index >>> 6;
+        if (word >= 1 << depth) {
+            return false;
+        }
+        Node node = root;
+        for (int level = depth - 1; level >= 0 && node != null; level--) {
+            node = ((word >>> level) & 1) == 0 ? node.left : node.right;
+        }
+        return node != null && (node.word & (1L << index)) != 0;
+    }
+
+    /**
+     * Returns a set with the bit changed, or this set if it already has
+     * that value.
+     */
+    public PersistentBitSet set(int index, boolean value) {
+        if (get(index) == value) {
+            return this;
+        }
+        int word = index >>> 6;
+        Node grown = root;
+        int grownDepth = depth;
+        while (word >= 1 << grownDepth) {
+            grown = grown != null ? new Node(grown, null, 0) : null;
+            grownDepth++;
+        }
+        Node updated = with(grown, grownDepth - 1, word, 1L << index, value);
+        return new PersistentBitSet(updated, grownDepth, cardinality + (value ? 1 : -1));
+    }
+
+    public int cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * Calls {@code action} with every index whose bit differs between the
+     * two sets, in ascending order.
+     */
+    public void forEachDifference(PersistentBitSet other, IntConsumer action) {
+        int common = Math.max(depth, other.depth);
+        difference(rootAt(common), other.rootAt(common), common - 1, 0, action);
+    }
+
+    private Node rootAt(int targetDepth) {
+        Node node = root;
+        for (int d = depth; d < targetDepth && node != null; d++) {
+            node = new Node(node, null, 0);
+        }
+        return node;
+    }
+
+    private static Node with(Node node, int level, int word, long bit, boolean value) {
+        if (level < 0) {
+            long current = node != null ? node.word : 0;
+            return new Node(null, null, value ? current | bit : current & ~bit);
+        }
+        Node left = node != null ? node.left : null;
+        Node right = node != null ? node.right : null;
+        if (((word >>> level) & 1) == 0) {
+            left = with(left, level - 1, word, bit, value);
+        } else {
+            right = with(right, level - 1, word, bit, value);
+        }
+        return new Node(left, right, 0);
+    }
+
+    private static void difference(Node a, Node b, int level, int firstWord, IntConsumer action) {
+        if (a == b) {
+            return;
+        }
+        if (level < 0) {
+            long bits = (a != null ? a.word : 0) ^ (b != null ? b.word : 0);
+            while (bits != 0) {
+                action.accept(firstWord * 64 + Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+            return;
+        }
+        difference(a != null ? a.left : null, b != null ? b.left : null, level - 1, firstWord, action);
+        difference(a != null ? a.right : null, b != null ? b.right : null, level - 1, firstWord + (1 << level), action);
+    }
+
+    private static final class Node {
+        final Node left;
+        final Node right;
+        final long word;
+
+        Node(Node left, Node right, long word) {
+            this.left = left;
+            this.right = right;
+            this.word = word;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.intellectual_systems.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable singly linked list. push returns a new list whose tail is the
+ * old one, so every earlier version stays valid and shares all its cells.
+ * Iteration runs from the newest element to the oldest.
+ *
+ * @author Jonathan
+ */
+public final class PersistentList<T> implements Iterable<T> {
+    private static final PersistentList<Object> EMPTY = new PersistentList<>(null, null, 0);
+
+    private final T head;
+    private final PersistentList<T> tail;
+    private final int size;
+
+    private PersistentList(T head, PersistentList<T> tail, int size) {
+        this.head = head;
+        this.tail = tail;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> PersistentList<T> empty() {
+        return (PersistentList<T>) EMPTY;
+    }
+
+    public PersistentList<T> push(T value) {
+        return new PersistentList<>(value, this, size + 1);
+    }
+
+    public T head() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return head;
+    }
+
+    public PersistentList<T> tail() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return tail;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * The elements oldest first, in a new mutable list.
+     */
+    public List<T> toList() {
+        ArrayList<T> list = new ArrayList<>(size);
+        for (T value : this) {
+            list.add(value);
+        }
+        for (int i = 0, j = size - 1; i < j; i++, j--) {
+            list.set(i, list.set(j, list.get(i)));
+        }
+        return list;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private PersistentList<T> next = PersistentList.this;
+
+            @Override
+            public boolean hasNext() {
+                return next.size > 0;
+            }
+
+            @Override
+            public T next() {
+                if (next.size == 0) {
+                    throw new NoSuchElementException();
+                }
+                T value = next.head;
+                next = next.tail;
+                return value;
+            }
+        };
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.intellectual_systems.util;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Compressed set of long values: a {@link RoaringBitmap} of the low 32
+ * bits for each distinct high 32 bits, found through a hash map.
+ *
+ * @author Jonathan
+ */
+public class Roaring64Bitmap {
+    private final IntHashMap<RoaringBitmap> buckets = new IntHashMap<>();
+    private long cardinality = 0;
+
+    public boolean contains(long value) {
+        RoaringBitmap bucket = buckets.get((int) (value >>> 32));
+        return bucket != null && bucket.contains((int) value);
+    }
+
+    /**
+     * Adds the value. Returns false if it was already present.
+     */
+    public boolean add(long value) {
+        int high = (int) (value >>> 32);
+        RoaringBitmap bucket = buckets.get(high);
+        if (bucket == null) {
+            bucket = new RoaringBitmap();
+            buckets.put(high, bucket);
+        }
+        if (!bucket.add((int) value)) {
+            return false;
+        }
+        cardinality++;
+        return true;
+    }
+
+    public long getCardinality() {
+        return cardinality;
+    }
+
+    /**
+     * Writes the bucket count, then each bucket's high bits followed by
+     * its bitmap, in key order.
+     */
+    public void writeTo(DataOutputStream out) throws IOException {
+        int[] keys = buckets.keys();
+        Arrays.sort(keys);
+        out.writeInt(keys.length);
+        for (int key : keys) {
+            out.writeInt(key);
+            buckets.get(key).writeTo(out);
+        }
+    }
+
+    public static Roaring64Bitmap readFrom(DataInputStream in) throws IOException {
+        Roaring64Bitmap bitmap = new Roaring64Bitmap();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            int key = in.readInt();
+            RoaringBitmap bucket = RoaringBitmap.readFrom(in);
+            bitmap.buckets.put(key, bucket);
+            bitmap.cardinality += bucket.getCardinality();
+        }
+        return bitmap;
+    }
+}
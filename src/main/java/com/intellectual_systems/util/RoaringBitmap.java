@@ -0,0 +1,233 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+
+package com.intellectual_systems.util;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Compressed set of int values in the style of Roaring bitmaps. A small
+ * set is one sorted int array. Past {@link #ARRAY_LIMIT} values they are
+ * grouped by their high 16 bits; each group keeps its low 16 bits in a
+ * sorted char array while it is small and in a 65536-bit bitmap once it
+ * passes {@link #ARRAY_LIMIT} entries. Groups are found through a hash map,
+ * so contains costs one probe plus at most a 12-step binary search.
+ * Arrays grow by doubling, so filling one is linear rather than quadratic.
+ *
+ * @author Jonathan
+ */
+public class RoaringBitmap {
+    public static final int ARRAY_LIMIT = 4096;
+    private static final int BITMAP_WORDS = 1 << 10;
+
+    // Values with the sign bit flipped, so signed order is unsigned order;
+    // null once the set has moved to containers
+    private int[] sparse = new int[4];
+    // High 16 bits -> ArrayContainer of sorted low bits, or long[BITMAP_WORDS];
+    // created when the set outgrows the sparse array
+    private IntHashMap<Object> containers;
+    private int cardinality = 0;
+
+    private static final class ArrayContainer {
+        char[] values = new char[4];
+        int size;
+    }
+
+    public boolean contains(int value) {
+        if (sparse != null) {
+            return Arrays.binarySearch(sparse, 0, cardinality, value ^ Integer.MIN_VALUE) >= 0;
+        }
+        Object container = containers.get(value >>> 16);
+        if (container == null) {
+            return false;
+        }
+        char low = (char) value;
+        if (container instanceof long[] bitmap) {
+            return (bitmap[low >>> 6] & (1L << low)) != 0;
+        }
+        ArrayContainer array = (ArrayContainer) container;
+        return Arrays.binarySearch(array.values, 0, array.size, low) >= 0;
+    }
+
+    /**
+     * Adds the value. Returns false if it was already present.
+     */
+    public boolean add(int value) {
+        if (sparse != null) {
+            int flipped = value ^ Integer.MIN_VALUE;
+            int index = Arrays.binarySearch(sparse, 0, cardinality, flipped);
+            if (index >= 0) {
+                return false;
+            }
+            if (cardinality < ARRAY_LIMIT) {
+                index = -index - 1;
+                if (cardinality == sparse.length) {
+                    sparse = Arrays.copyOf(sparse, cardinality * 2);
+                }
+                System.arraycopy(sparse, index, sparse, index + 1, cardinality - index);
+                sparse[index] = flipped;
+                cardinality++;
+                return true;
+            }
+            toContainers();
+        }
+        int high = value >>> 16;
+        char low = (char) value;
+        Object container = containers.get(high);
+        if (container instanceof long[] bitmap) {
+            if ((bitmap[low >>> 6] & (1L << low)) != 0) {
+                return false;
+            }
+            bitmap[low >>> 6] |= 1L << low;
+        } else {
+            ArrayContainer array = (ArrayContainer) container;
+            if (array == null) {
+                array = new ArrayContainer();
+                containers.put(high, array);
+            }
+            int index = Arrays.binarySearch(array.values, 0, array.size, low);
+            if (index >= 0) {
+                return false;
+            }
+            index = -index - 1;
+            if (array.size == ARRAY_LIMIT) {
+                long[] bitmap = new long[BITMAP_WORDS];
+                for (int i = 0; i < array.size; i++) {
+                    char c = array.values[i];
+                    bitmap[c >>> 6] |= 1L << c;
+                }
+                bitmap[low >>> 6] |= 1L << low;
+                containers.put(high, bitmap);
+            } else {
+                insert(array, index, low);
+            }
+        }
+        cardinality++;
+        return true;
+    }
+
+    public int getCardinality() {
+        return cardinality;
+    }
+
+    /**
+     * Writes the groups in key order: the group count, then for each group
+     * its key, its size and either its sorted values or its bitmap words.
+     * A small set is written in the same layout as a grouped one.
+     */
+    public void writeTo(DataOutputStream out) throws IOException {
+        if (sparse != null) {
+            int groups = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (i == 0 || (sparse[i] >>> 16) != (sparse[i - 1] >>> 16)) {
+                    groups++;
+                }
+            }
+            out.writeInt(groups);
+            for (int start = 0; start < cardinality; ) {
+                int key = sparse[start] >>> 16;
+                int end = start;
+                while (end < cardinality && (sparse[end] >>> 16) == key) {
+                    end++;
+                }
+                out.writeChar((sparse[start] ^ Integer.MIN_VALUE) >>> 16);
+                out.writeInt(end - start);
+                for (int i = start; i < end; i++) {
+                    out.writeChar(sparse[i]);
+                }
+                start = end;
+            }
+            return;
+        }
+        int[] keys = containers.keys();
+        Arrays.sort(keys);
+        out.writeInt(keys.length);
+        for (int key : keys) {
+            Object container = containers.get(key);
+            out.writeChar(key);
+            if (container instanceof long[] bitmap) {
+                int size = 0;
+                for (long word : bitmap) {
+                    size += Long.bitCount(word);
+                }
+                out.writeInt(size);
+                for (long word : bitmap) {
+                    out.writeLong(word);
+                }
+            } else {
+                ArrayContainer array = (ArrayContainer) container;
+                out.writeInt(array.size);
+                for (int i = 0; i < array.size; i++) {
+                    out.writeChar(array.values[i]);
+                }
+            }
+        }
+    }
+
+    public static RoaringBitmap readFrom(DataInputStream in) throws IOException {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            int key = in.readChar();
+            int size = in.readInt();
+            if (bitmap.sparse != null && bitmap.cardinality + size > ARRAY_LIMIT) {
+                bitmap.toContainers();
+            }
+            if (size > ARRAY_LIMIT) {
+                long[] words = new long[BITMAP_WORDS];
+                for (int w = 0; w < BITMAP_WORDS; w++) {
+                    words[w] = in.readLong();
+                }
+                bitmap.containers.put(key, words);
+            } else if (bitmap.sparse != null) {
+                // Groups arrive in key order, so the values stay sorted
+                if (bitmap.cardinality + size > bitmap.sparse.length) {
+                    bitmap.sparse = Arrays.copyOf(bitmap.sparse, Math.max(bitmap.sparse.length * 2, bitmap.cardinality + size));
+                }
+                for (int c = 0; c < size; c++) {
+                    bitmap.sparse[bitmap.cardinality + c] = ((key << 16) | in.readChar()) ^ Integer.MIN_VALUE;
+                }
+            } else {
+                ArrayContainer array = new ArrayContainer();
+                array.values = new char[Math.max(size, 4)];
+                for (int c = 0; c < size; c++) {
+                    array.values[c] = in.readChar();
+                }
+                array.size = size;
+                bitmap.containers.put(key, array);
+            }
+            bitmap.cardinality += size;
+        }
+        return bitmap;
+    }
+
+    private void toContainers() {
+        int[] values = sparse;
+        sparse = null;
+        containers = new IntHashMap<>();
+        for (int i = 0; i < cardinality; i++) {
+            int value = values[i] ^ Integer.MIN_VALUE;
+            ArrayContainer array = (ArrayContainer) containers.get(value >>> 16);
+            if (array == null) {
+                array = new ArrayContainer();
+                containers.put(value >>> 16, array);
+            }
+            // Values come in ascending order, so each one goes on the end
+            insert(array, array.size, (char) value);
+        }
+    }
+
+    private static void insert(ArrayContainer array, int index, char low) {
+        if (array.size == array.values.length) {
+            array.values = Arrays.copyOf(array.values, array.size * 2);
+        }
+        System.arraycopy(array.values, index, array.values, index + 1, array.size - index);
+        array.values[index] = low;
+        array.size++;
+    }
+}
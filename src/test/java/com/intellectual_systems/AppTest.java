@@ -2,24 +2,83 @@ package com.intellectual_systems;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.HashSet;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import com.intellectual_systems.model.Category;
 import com.intellectual_systems.model.Player;
 import com.intellectual_systems.model.Question;
 import com.intellectual_systems.model.Turn;
 import com.intellectual_systems.model.GameSummary;
+import com.intellectual_systems.model.QuestionStore;
+import com.intellectual_systems.model.GameBoard;
+import com.intellectual_systems.model.GameSnapshot;
+import com.intellectual_systems.command.AnswerQuestionCommand;
+import com.intellectual_systems.command.EndTurnCommand;
+import com.intellectual_systems.command.SelectCategoryCommand;
+import com.intellectual_systems.command.SelectQuestionCommand;
+import com.intellectual_systems.command.UndoTurnCommand;
+import com.intellectual_systems.command.RedoTurnCommand;
+import com.intellectual_systems.controller.GameEngine;
+import com.intellectual_systems.controller.GameState;
+import com.intellectual_systems.controller.state.LoadState;
+import com.intellectual_systems.controller.Pager;
+import com.intellectual_systems.util.IntHashMap;
+import com.intellectual_systems.util.PersistentBitSet;
+import com.intellectual_systems.util.RoaringBitmap;
+import com.intellectual_systems.util.Roaring64Bitmap;
+import java.util.HashMap;
+import java.util.BitSet;
+import java.util.Random;
+import java.util.Arrays;
 import com.intellectual_systems.parser.CsvParser;
 import com.intellectual_systems.parser.JsonParser;
 import com.intellectual_systems.parser.XmlParser;
 import com.intellectual_systems.logging.EventLogger;
 import com.intellectual_systems.logging.GameEvent;
 import com.intellectual_systems.logging.CSVLogger;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+import com.intellectual_systems.parser.CsvTokenizer;
+import com.intellectual_systems.parser.ScalarCsvTokenizer;
+import com.intellectual_systems.parser.VectorCsvTokenizer;
+import com.intellectual_systems.logging.CSVLogReader;
+import java.io.File;
+import com.intellectual_systems.parser.QBankCompiler;
+import com.intellectual_systems.parser.QBankParser;
+import com.intellectual_systems.parser.ParseCache;
+import java.nio.file.Path;
+import com.intellectual_systems.controller.BankWatcher;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import com.intellectual_systems.parser.StringPool;
+import com.intellectual_systems.parser.ParserRegistry;
+import com.intellectual_systems.parser.MultiBankLoader;
+import com.intellectual_systems.bank.ExternalBankSorter;
+import com.intellectual_systems.bank.CsvBankWriter;
+import com.intellectual_systems.bank.NearDuplicateDetector;
+import com.intellectual_systems.bank.QuestionIndex;
+import com.intellectual_systems.bank.BoardBuilder;
+import com.intellectual_systems.bank.SeenQuestionStore;
+import com.intellectual_systems.bank.QuestionIds;
 
 /**
  * Simplified Test Suite - 28 Essential Tests
@@ -31,6 +90,9 @@ public class AppTest
     private JsonParser jsonParser;
     private XmlParser xmlParser;
 
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
     @Before
     public void setUp() {
         csvParser = new CsvParser();
@@ -206,9 +268,7 @@ public class AppTest
     }
     
     @Test
-    public void testCategoryAddQuestion() {
-        Category category = new Category("History");
-        
+    public void testCategoryHoldsQuestionsItWasBuiltWith() {
         ArrayList<String> choices = new ArrayList<>();
         choices.add("1945");
         Question question = new Question(
@@ -219,7 +279,7 @@ public class AppTest
             100
         );
         
-        category.addQuestion(question);
+        Category category = new Category("History", List.of(question));
         
         assertEquals("Category should have 1 question", 1, category.getQuestions().size());
         assertEquals("Question should match", question, category.getQuestions().get(0));
@@ -227,13 +287,13 @@ public class AppTest
     
     @Test
     public void testCategoryMultipleQuestions() {
-        Category category = new Category("Math");
         ArrayList<String> choices = new ArrayList<>();
         choices.add("Answer");
         
-        category.addQuestion(new Question("Q1", choices, "A1", "Math", 100));
-        category.addQuestion(new Question("Q2", choices, "A2", "Math", 200));
-        category.addQuestion(new Question("Q3", choices, "A3", "Math", 300));
+        Category category = new Category("Math", List.of(
+            new Question("Q1", choices, "A1", "Math", 100),
+            new Question("Q2", choices, "A2", "Math", 200),
+            new Question("Q3", choices, "A3", "Math", 300)));
         
         assertEquals("Should have 3 questions", 3, category.getQuestions().size());
     }
@@ -499,6 +559,1068 @@ public class AppTest
                   summaryStr.contains("Turn 1") || summaryStr.contains("Category"));
     }
     
+    // ==================== STREAMING PARSER TESTS (6 tests) ====================
+
+    @Test
+    public void testVisitorReceivesEveryQuestion() {
+        String testFile = "src/test/java/com/intellectual_systems/resources/questions.csv";
+        List<Question> visited = new ArrayList<>();
+        csvParser.parse(testFile, visited::add);
+
+        assertEquals("Visitor should see every row", 25, visited.size());
+    }
+
+    @Test
+    public void testStreamingGroupingMatchesAcrossFormats() {
+        ArrayList<Category> fromCsv = csvParser.parse("src/test/java/com/intellectual_systems/resources/questions.csv");
+        ArrayList<Category> fromXml = xmlParser.parse("src/test/java/com/intellectual_systems/resources/questions.xml");
+
+        assertEquals("Formats should produce the same categories", fromCsv.size(), fromXml.size());
+        for (int i = 0; i < fromCsv.size(); i++) {
+            assertEquals(fromCsv.get(i).getName(), fromXml.get(i).getName());
+            assertEquals(fromCsv.get(i).getQuestions().size(), fromXml.get(i).getQuestions().size());
+        }
+    }
+
+    @Test
+    public void testXMLPreservesOptionOrderAndEntities() {
+        ArrayList<Category> categories = xmlParser.parse("src/test/java/com/intellectual_systems/resources/questions.xml");
+
+        Question first = categories.get(0).getQuestions().get(0);
+        assertEquals("int num;", first.getChoices().get(0));
+        assertEquals("integer num;", first.getChoices().get(3));
+        assertEquals("Variables & Data Types", first.getCategory());
+        assertEquals(100, first.getValue());
+    }
+
+    @Test
+    public void testJSONStreamingMatchesCSV() {
+        ArrayList<Category> fromJson = jsonParser.parse("src/test/java/com/intellectual_systems/resources/questions.json");
+        ArrayList<Category> fromCsv = csvParser.parse("src/test/java/com/intellectual_systems/resources/questions.csv");
+
+        Question json = fromJson.get(1).getQuestions().get(2);
+        Question csv = fromCsv.get(1).getQuestions().get(2);
+        assertEquals(csv.getQuestionText(), json.getQuestionText());
+        assertEquals(csv.getChoices(), json.getChoices());
+        assertEquals(csv.getAnswer(), json.getAnswer());
+        assertEquals(csv.getValue(), json.getValue());
+    }
+
+    @Test
+    public void testMemoryMappedCSVMatchesSequential() {
+        String testFile = "src/test/java/com/intellectual_systems/resources/questions.csv";
+        ArrayList<Category> sequential = csvParser.parse(testFile);
+        ArrayList<Category> mapped = new CsvParser(true).parse(testFile);
+
+        assertEquals("Should find the same categories", sequential.size(), mapped.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            assertEquals(sequential.get(i).getName(), mapped.get(i).getName());
+            for (int j = 0; j < sequential.get(i).getQuestions().size(); j++) {
+                Question expected = sequential.get(i).getQuestions().get(j);
+                Question actual = mapped.get(i).getQuestions().get(j);
+                assertEquals(expected.getQuestionText(), actual.getQuestionText());
+                assertEquals(expected.getChoices(), actual.getChoices());
+                assertEquals(expected.getValue(), actual.getValue());
+            }
+        }
+
+        List<String> streamed = new ArrayList<>();
+        List<String> streamedMapped = new ArrayList<>();
+        csvParser.parse(testFile, question -> streamed.add(question.getQuestionText()));
+        new CsvParser(true).parse(testFile, question -> streamedMapped.add(question.getQuestionText()));
+        assertEquals("Mapped mode should stream questions in file order", streamed, streamedMapped);
+    }
+
+    @Test
+    public void testMemoryMappedCSVSplitsOutsideQuotedLineBreaks() throws IOException {
+        File bank = tempFolder.newFile("multiline.csv");
+        StringBuilder csv = new StringBuilder("Category,Value,Question,OptionA,OptionB,OptionC,OptionD,CorrectAnswer\n");
+        for (int i = 0; i < 2000; i++) {
+            String text = i % 3 == 0 ? "\"Line one\nline \"\"two\"\",\n" + "x".repeat(i % 50) + "\nend " + i + "\"" : "Plain " + i;
+            csv.append("Topic").append(i % 7).append(',').append(100 * (1 + i % 5)).append(',').append(text).append(",a,b,\"c\nc\",d,A\n");
+        }
+        Files.write(bank.toPath(), csv.toString().getBytes(StandardCharsets.UTF_8));
+
+        List<String> sequential = new ArrayList<>();
+        List<String> mapped = new ArrayList<>();
+        csvParser.parse(bank.getPath(), question -> sequential.add(question.getQuestionText() + "|" + question.getChoices()));
+        new CsvParser(true).parse(bank.getPath(), question -> mapped.add(question.getQuestionText() + "|" + question.getChoices()));
+        assertEquals(2000, sequential.size());
+        assertEquals(sequential, mapped);
+    }
+
+    // ==================== CSV TOKENIZER TESTS (4 tests) ====================
+
+    private static List<List<String>> tokenize(CsvTokenizer tokenizer, String csv) {
+        List<List<String>> rows = new ArrayList<>();
+        byte[] bytes = csv.getBytes(StandardCharsets.UTF_8);
+        tokenizer.tokenize(ByteBuffer.wrap(bytes), 0, bytes.length, rows::add);
+        return rows;
+    }
+
+    private static List<List<String>> commonsCsv(String csv) throws IOException {
+        List<List<String>> rows = new ArrayList<>();
+        for (CSVRecord record : CSVFormat.EXCEL.parse(new StringReader(csv))) {
+            rows.add(record.toList());
+        }
+        return rows;
+    }
+
+    @Test
+    public void testTokenizersMatchCommonsCsvOnEdgeCases() throws IOException {
+        String csv = "a,\"b, with comma\",c\r\n"
+                + "\"multi\nline\",\"say \"\"hi\"\"\",\n"
+                + "café,,über plain text that is long enough to span a full vector register\n"
+                + "\n"
+                + "last,row";
+        List<List<String>> expected = commonsCsv(csv);
+        assertEquals(expected, tokenize(new ScalarCsvTokenizer(), csv));
+        assertEquals(expected, tokenize(new VectorCsvTokenizer(), csv));
+    }
+
+    @Test
+    public void testTokenizersMatchCommonsCsvOnQuestionBank() throws IOException {
+        String csv = new String(Files.readAllBytes(Paths.get("src/test/java/com/intellectual_systems/resources/questions.csv")), StandardCharsets.UTF_8);
+        List<List<String>> expected = commonsCsv(csv);
+        assertEquals(expected, tokenize(new ScalarCsvTokenizer(), csv));
+        assertEquals(expected, tokenize(new VectorCsvTokenizer(), csv));
+    }
+
+    @Test
+    public void testTokenizerBackendLoadsSameQuestions() {
+        String testFile = "src/test/java/com/intellectual_systems/resources/questions.csv";
+        ArrayList<Category> expected = csvParser.parse(testFile);
+        ArrayList<Category> actual = new CsvParser(false, CsvTokenizer.preferred()).parse(testFile);
+
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.get(2).getQuestions().get(4).getQuestionText(), actual.get(2).getQuestions().get(4).getQuestionText());
+        assertEquals(expected.get(2).getQuestions().get(4).getChoices(), actual.get(2).getQuestions().get(4).getChoices());
+    }
+
+    @Test
+    public void testCSVLogReaderMatchesCommonsCsv() throws IOException {
+        String logFile = "src/test/java/com/intellectual_systems/resources/test_events.csv";
+        String csv = new String(Files.readAllBytes(Paths.get(logFile)), StandardCharsets.UTF_8);
+        List<List<String>> expected = commonsCsv(csv);
+        expected.remove(0);
+
+        assertEquals(expected, new CSVLogReader(logFile, new ScalarCsvTokenizer()).readRows());
+        assertEquals(expected, new CSVLogReader(logFile, new VectorCsvTokenizer()).readRows());
+    }
+
+    // ==================== COMPILED BANK TESTS (4 tests) ====================
+
+    @Test
+    public void testCompiledBankRoundTrip() throws IOException {
+        File bank = tempFolder.newFile("questions.qbank");
+        ArrayList<Category> expected = jsonParser.parse("src/test/java/com/intellectual_systems/resources/questions.json");
+        QBankCompiler.compile(expected, bank.getPath());
+
+        ArrayList<Category> actual = new QBankParser().parse(bank.getPath());
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getName(), actual.get(i).getName());
+            assertEquals(expected.get(i).getQuestions().size(), actual.get(i).getQuestions().size());
+            for (int j = 0; j < expected.get(i).getQuestions().size(); j++) {
+                Question e = expected.get(i).getQuestions().get(j);
+                Question a = actual.get(i).getQuestions().get(j);
+                assertEquals(e.getQuestionText(), a.getQuestionText());
+                assertEquals(e.getChoices(), a.getChoices());
+                assertEquals(e.getAnswer(), a.getAnswer());
+                assertEquals(e.getCategory(), a.getCategory());
+                assertEquals(e.getValue(), a.getValue());
+            }
+        }
+    }
+
+    @Test
+    public void testCompiledBankKeepsOffsetsPastUnpairedSurrogate() throws IOException {
+        File bank = tempFolder.newFile("surrogate.qbank");
+        ArrayList<String> choices = new ArrayList<>(Arrays.asList("A", "B"));
+        Category category = new Category("Text\uD800", List.of(
+                new Question("Broken \uDC00 surrogate", choices, "A", "Text\uD800", 100),
+                new Question("Next question", choices, "B", "Text\uD800", 200)));
+        ArrayList<Category> categories = new ArrayList<>();
+        categories.add(category);
+        QBankCompiler.compile(categories, bank.getPath());
+
+        ArrayList<Category> actual = new QBankParser().parse(bank.getPath());
+        assertEquals(1, actual.size());
+        assertEquals("Broken ? surrogate", actual.get(0).getQuestions().get(0).getQuestionText());
+        assertEquals("Next question", actual.get(0).getQuestions().get(1).getQuestionText());
+        assertEquals("B", actual.get(0).getQuestions().get(1).getAnswer());
+    }
+
+    @Test
+    public void testTruncatedCompiledBankLoadsNothing() throws IOException {
+        File bank = tempFolder.newFile("truncated.qbank");
+        QBankCompiler.compile(csvParser, "src/test/java/com/intellectual_systems/resources/questions.csv", bank.getPath());
+        byte[] bytes = Files.readAllBytes(bank.toPath());
+
+        for (int length : new int[] {8, 40, bytes.length / 2, bytes.length - 1}) {
+            Files.write(bank.toPath(), Arrays.copyOf(bytes, length));
+            assertTrue("A bank cut to " + length + " bytes should load nothing", new QBankParser().parse(bank.getPath()).isEmpty());
+        }
+    }
+
+    @Test
+    public void testLazyCompiledBankMatchesEager() throws IOException {
+        File bank = tempFolder.newFile("questions.qbank");
+        QBankCompiler.compile(csvParser, "src/test/java/com/intellectual_systems/resources/questions.csv", bank.getPath());
+
+        ArrayList<Category> eager = new QBankParser().parse(bank.getPath());
+        ArrayList<Category> lazy = new QBankParser(true).parse(bank.getPath());
+        for (int i = 0; i < eager.size(); i++) {
+            for (int j = 0; j < eager.get(i).getQuestions().size(); j++) {
+                Question e = eager.get(i).getQuestions().get(j);
+                Question l = lazy.get(i).getQuestions().get(j);
+                assertEquals(e.getValue(), l.getValue());
+                assertEquals(e.getQuestionText(), l.getQuestionText());
+                assertEquals(e.getChoices(), l.getChoices());
+                assertEquals(e.getAnswer(), l.getAnswer());
+            }
+        }
+    }
+
+    // ==================== PARSE CACHE TESTS (2 tests) ====================
+
+    @Test
+    public void testParseCacheHitsOnUnchangedBank() throws IOException {
+        File directory = tempFolder.newFolder("bank_cache");
+        String testFile = "src/test/java/com/intellectual_systems/resources/questions.csv";
+        ParseCache cache = new ParseCache(directory, ParseCache.DEFAULT_MEMORY_LIMIT, ParseCache.DEFAULT_DISK_LIMIT);
+
+        ArrayList<Category> first = cache.load(testFile, csvParser);
+        first.remove(0);
+        ArrayList<Category> second = cache.load(testFile, csvParser);
+
+        assertEquals("First load should miss", 1, cache.getMissCount());
+        assertEquals("Second load should hit", 1, cache.getHitCount());
+        assertEquals("Cached bank should be unaffected by callers' lists", 5, second.size());
+        assertEquals(5, second.get(0).getQuestions().size());
+    }
+
+    @Test
+    public void testParseCacheFallsBackToDiskTier() throws IOException {
+        File directory = tempFolder.newFolder("bank_cache");
+        String testFile = "src/test/java/com/intellectual_systems/resources/questions.json";
+        new ParseCache(directory, ParseCache.DEFAULT_MEMORY_LIMIT, ParseCache.DEFAULT_DISK_LIMIT).load(testFile, jsonParser);
+
+        ParseCache restarted = new ParseCache(directory, ParseCache.DEFAULT_MEMORY_LIMIT, ParseCache.DEFAULT_DISK_LIMIT);
+        ArrayList<Category> categories = restarted.load(testFile, jsonParser);
+
+        assertEquals("Disk tier should satisfy the load", 1, restarted.getHitCount());
+        assertEquals(0, restarted.getMissCount());
+        assertEquals(5, categories.size());
+    }
+
+    // ==================== HOT RELOAD TESTS (1 test) ====================
+
+    @Test
+    public void testBankWatcherQueuesOnlyEditedQuestions() throws Exception {
+        Path directory = tempFolder.newFolder("hot_reload").toPath();
+        Path bank = directory.resolve("bank.csv");
+        String original = new String(Files.readAllBytes(Paths.get("src/test/java/com/intellectual_systems/resources/questions.csv")), StandardCharsets.UTF_8);
+        Files.write(bank, original.getBytes(StandardCharsets.UTF_8));
+
+        BankWatcher watcher = new BankWatcher(bank.toString(), csvParser, csvParser.parse(bank.toString()));
+        watcher.start();
+        try {
+            Files.write(bank, original.replace("single character", "single char").getBytes(StandardCharsets.UTF_8));
+
+            List<List<Question>> changes = new ArrayList<>();
+            for (int i = 0; i < 100 && changes.isEmpty(); i++) {
+                Thread.sleep(100);
+                changes = watcher.drainChanges();
+            }
+            assertEquals("One reload batch expected", 1, changes.size());
+            assertEquals("Only the edited question should be queued", 1, changes.get(0).size());
+            assertEquals(200, changes.get(0).get(0).getValue());
+        } finally {
+            watcher.stop();
+        }
+    }
+
+    // ==================== STRING POOL TESTS (2 tests) ====================
+
+    @Test
+    public void testStringPoolReturnsCanonicalInstance() {
+        StringPool pool = new StringPool();
+        String first = pool.intern(new String("Variables"));
+        String second = pool.intern(new String("Variables"));
+        assertSame("Equal strings should share one instance", first, second);
+        assertEquals(1, pool.size());
+        assertEquals(1, pool.getDuplicateCount());
+        assertTrue("Dropping a duplicate should save heap", pool.getSavedBytes() > 0);
+    }
+
+    @Test
+    public void testParsersShareRepeatedStrings() {
+        String testFile = "src/test/java/com/intellectual_systems/resources/questions.csv";
+        for (ArrayList<Category> categories : List.of(csvParser.parse(testFile), new CsvParser(true).parse(testFile))) {
+            List<Question> questions = categories.get(0).getQuestions();
+            assertSame("Category names should be pooled", questions.get(0).getCategory(), questions.get(1).getCategory());
+        }
+    }
+
+    // ==================== MULTI-BANK LOADING TESTS (2 tests) ====================
+
+    @Test
+    public void testParserRegistrySniffsContent() throws IOException {
+        Path directory = tempFolder.newFolder("sniff").toPath();
+        String resources = "src/test/java/com/intellectual_systems/resources/";
+        Path json = Files.copy(Paths.get(resources + "questions.json"), directory.resolve("json.bank"));
+        Path xml = Files.copy(Paths.get(resources + "questions.xml"), directory.resolve("xml.bank"));
+        Path csv = Files.copy(Paths.get(resources + "questions.csv"), directory.resolve("csv.bank"));
+
+        assertTrue(ParserRegistry.forFile(json.toString()) instanceof JsonParser);
+        assertTrue(ParserRegistry.forFile(xml.toString()) instanceof XmlParser);
+        assertTrue(ParserRegistry.forFile(csv.toString()) instanceof CsvParser);
+        assertEquals(List.of(csv.toString(), json.toString(), xml.toString()), ParserRegistry.expand(directory.toString()));
+        assertEquals(List.of(json.toString()), ParserRegistry.expand(directory + "/j*.bank"));
+    }
+
+    @Test
+    public void testMultiBankLoaderMergesInPathOrder() throws IOException {
+        Path directory = tempFolder.newFolder("multi_bank").toPath();
+        String resources = "src/test/java/com/intellectual_systems/resources/";
+        Files.copy(Paths.get(resources + "questions.csv"), directory.resolve("a.csv"));
+        Files.copy(Paths.get(resources + "questions.xml"), directory.resolve("b.xml"));
+        ParseCache cache = new ParseCache(tempFolder.newFolder("multi_bank_cache"), ParseCache.DEFAULT_MEMORY_LIMIT, ParseCache.DEFAULT_DISK_LIMIT);
+
+        ArrayList<Category> csv = csvParser.parse(resources + "questions.csv");
+        ArrayList<Category> xml = xmlParser.parse(resources + "questions.xml");
+        ArrayList<Category> merged = new MultiBankLoader(cache, 2).load(ParserRegistry.expand(directory.toString()));
+
+        assertEquals(csv.size(), merged.size());
+        Category first = merged.get(0);
+        int csvCount = csv.get(0).getQuestions().size();
+        assertEquals(csvCount + xml.get(0).getQuestions().size(), first.getQuestions().size());
+        assertEquals(csv.get(0).getQuestions().get(0).getQuestionText(), first.getQuestions().get(0).getQuestionText());
+        assertEquals(xml.get(0).getQuestions().get(0).getQuestionText(), first.getQuestions().get(csvCount).getQuestionText());
+    }
+
+    // ==================== BANK MERGE TESTS (2 tests) ====================
+
+    @Test
+    public void testExternalSortMergesRunsAndDropsDuplicates() throws IOException {
+        String testFile = "src/test/java/com/intellectual_systems/resources/questions.csv";
+        Path directory = tempFolder.newFolder("bank_merge").toPath();
+        String target = directory.resolve("merged.csv").toString();
+
+        // A one-byte budget spills every question to its own run
+        ExternalBankSorter sorter = new ExternalBankSorter(directory.toFile(), 1);
+        csvParser.parse(testFile, sorter);
+        csvParser.parse(testFile, sorter);
+        assertTrue("Should have spilled several runs", sorter.getRunCount() > 1);
+        try (CsvBankWriter writer = new CsvBankWriter(target)) {
+            sorter.finish(writer);
+        }
+        assertEquals(sorter.getInputCount() / 2, sorter.getOutputCount());
+        assertEquals(sorter.getOutputCount(), sorter.getDuplicateCount());
+
+        List<Question> merged = new ArrayList<>();
+        csvParser.parse(target, merged::add);
+        assertEquals(sorter.getOutputCount(), merged.size());
+        for (int i = 1; i < merged.size(); i++) {
+            assertTrue("Merged bank should be sorted", ExternalBankSorter.ORDER.compare(merged.get(i - 1), merged.get(i)) < 0);
+        }
+        assertEquals("Only the merged bank should remain", 1, directory.toFile().list().length);
+    }
+
+    @Test
+    public void testCsvBankWriterKeepsChoiceCounts() throws IOException {
+        File target = tempFolder.newFile("choices.csv");
+        try (CsvBankWriter writer = new CsvBankWriter(target.getPath())) {
+            writer.visit(new Question("Three?", new ArrayList<>(List.of("a", "b", "c")), "A", "Counts", 100));
+            writer.visit(new Question("Four?", new ArrayList<>(List.of("a", "b", "c", "d")), "B", "Counts", 200));
+            try {
+                writer.visit(new Question("Five?", new ArrayList<>(List.of("a", "b", "c", "d", "e")), "C", "Counts", 300));
+                fail("More choices than the CSV columns hold should be rejected");
+            } catch (IllegalArgumentException e) {
+            }
+        }
+
+        List<Question> reloaded = new ArrayList<>();
+        csvParser.parse(target.getPath(), reloaded::add);
+        assertEquals(2, reloaded.size());
+        assertEquals(List.of("a", "b", "c"), reloaded.get(0).getChoices());
+        assertEquals(List.of("a", "b", "c", "d"), reloaded.get(1).getChoices());
+    }
+
+    // ==================== NEAR-DUPLICATE TESTS (1 test) ====================
+
+    @Test
+    public void testNearDuplicateDetectorClustersRewordedQuestions() {
+        ArrayList<String> choices = new ArrayList<>(List.of("int num;", "float num;", "num int;", "integer num;"));
+        NearDuplicateDetector detector = new NearDuplicateDetector();
+        detector.beginSource("first");
+        detector.visit(new Question("Which of the following declares an integer variable in C++?", choices, "A", "Variables", 100));
+        detector.visit(new Question("What is the value of x after int x = 5/2;?", new ArrayList<>(List.of("2", "2.5", "3", "2.0")), "A", "Variables", 300));
+        detector.beginSource("second");
+        detector.visit(new Question("Which one of the following lines declares an integer variable in C++?", choices, "A", "Types", 200));
+
+        List<List<NearDuplicateDetector.Match>> clusters = detector.findClusters();
+        assertEquals(1, clusters.size());
+        assertEquals(2, clusters.get(0).size());
+        assertEquals("first", clusters.get(0).get(0).getSource());
+        assertEquals("second", clusters.get(0).get(1).getSource());
+    }
+
+    // ==================== SEARCH INDEX TESTS (2 tests) ====================
+
+    @Test
+    public void testQuestionIndexKeywordSearchMatchesScan() {
+        ArrayList<Category> categories = csvParser.parse("src/test/java/com/intellectual_systems/resources/questions.csv");
+        QuestionIndex index = new QuestionIndex(categories);
+
+        List<Question> expected = new ArrayList<>();
+        for (Category category : categories) {
+            for (Question question : category.getQuestions()) {
+                String text = question.getQuestionText().toLowerCase();
+                if (text.matches(".*\\bvalue\\b.*") && text.matches(".*\\bx\\b.*")) {
+                    expected.add(question);
+                }
+            }
+        }
+        assertTrue("Fixture should contain matches", !expected.isEmpty());
+        assertEquals(expected, index.search("Value X"));
+        assertTrue(index.search("nosuchword").isEmpty());
+    }
+
+    @Test
+    public void testQuestionIndexPrefixSearch() {
+        ArrayList<String> choices = new ArrayList<>(List.of("yes", "no"));
+        Category category = new Category("Loops", List.of(
+                new Question("Is a for loop a looping construct?", choices, "A", "Loops", 100),
+                new Question("Does a while loop check first?", choices, "A", "Loops", 200),
+                new Question("Is recursion a loop?", choices, "B", "Loops", 300)));
+        QuestionIndex index = new QuestionIndex(List.of(category));
+
+        assertEquals(3, index.search("loop*").size());
+        assertEquals(1, index.search("loop* while").size());
+        assertEquals(200, index.search("whi*").get(0).getValue());
+        assertEquals("Category names are indexed", 3, index.search("loops").size());
+    }
+
+    // ==================== BOARD BUILDER TESTS (3 tests) ====================
+
+    @Test
+    public void testBoardBuilderSamplesCompleteCategories() {
+        List<Category> pool = new ArrayList<>();
+        for (int c = 0; c < 20; c++) {
+            List<Question> questions = new ArrayList<>();
+            for (int copy = 0; copy < 3; copy++) {
+                for (int value = 100; value <= 500; value += 100) {
+                    questions.add(new Question("Q" + c + "-" + value + "-" + copy, new ArrayList<>(List.of("a", "b")), "A", "Category " + c, value));
+                }
+            }
+            pool.add(new Category("Category " + c, questions));
+        }
+        pool.add(new Category("Incomplete", List.of(new Question("Only one", new ArrayList<>(List.of("a", "b")), "A", "Incomplete", 100))));
+
+        BoardBuilder builder = new BoardBuilder(pool);
+        assertEquals("Categories missing a value slot are skipped", 20, builder.getCategoryCount());
+        List<Category> board = builder.build(5, 42L);
+        assertEquals(5, board.size());
+        Set<String> names = new HashSet<>();
+        for (Category category : board) {
+            assertTrue("Categories should be distinct", names.add(category.getName()));
+            assertEquals(5, category.getQuestions().size());
+            for (int i = 0; i < 5; i++) {
+                assertEquals((i + 1) * 100, category.getQuestions().get(i).getValue());
+            }
+        }
+    }
+
+    @Test
+    public void testBoardBuilderIsReproducibleForASeed() {
+        ArrayList<Category> pool = csvParser.parse("src/test/java/com/intellectual_systems/resources/questions.csv");
+        BoardBuilder builder = new BoardBuilder(pool);
+        assertTrue("A bank that exactly fills the board is played as-is", !builder.isLargerThan(pool.size()));
+
+        List<Category> first = builder.build(3, 7L);
+        List<Category> second = builder.build(3, 7L);
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(first.get(i).getName(), second.get(i).getName());
+            assertEquals(first.get(i).getQuestions(), second.get(i).getQuestions());
+        }
+    }
+
+    @Test
+    public void testRestartDrawsANewBoard() throws IOException {
+        List<Category> pool = new ArrayList<>();
+        for (int c = 0; c < 20; c++) {
+            List<Question> questions = new ArrayList<>();
+            for (int copy = 0; copy < 3; copy++) {
+                for (int value = 100; value <= 500; value += 100) {
+                    questions.add(new Question("Q" + c + "-" + value + "-" + copy, new ArrayList<>(List.of("a", "b")), "A", "Category " + c, value));
+                }
+            }
+            pool.add(new Category("Category " + c, questions));
+        }
+        GameEngine engine = new GameEngine(null);
+        engine.setSeenQuestions(new SeenQuestionStore(tempFolder.newFolder("seen")));
+        engine.setBoardSeed(11L);
+        engine.setQuestionBank(pool);
+        assertEquals("Banks are played whole unless sampling is asked for", 20, engine.getCategories().size());
+        engine.setBoardCategories(5);
+        engine.setQuestionBank(pool);
+        assertEquals(5, engine.getCategories().size());
+        engine.setPlayers(new ArrayList<>(List.of(new Player("Alice"))));
+
+        Set<List<Question>> boards = new HashSet<>();
+        for (int game = 0; game < 5; game++) {
+            engine.rebuildBoardForPlayers();
+            List<Question> board = new ArrayList<>();
+            for (Category category : engine.getCategories()) {
+                board.addAll(category.getQuestions());
+            }
+            assertTrue("Game " + game + " should not repeat an earlier board", boards.add(board));
+            engine.restartGame();
+        }
+    }
+
+    // ==================== QUESTION STORE TESTS (1 test) ====================
+
+    @Test
+    public void testQuestionStoreViewsMatchParsedQuestions() {
+        ArrayList<Category> parsed = csvParser.parse("src/test/java/com/intellectual_systems/resources/questions.csv");
+        List<Question> extended = new ArrayList<>(parsed.get(0).getQuestions());
+        extended.add(new Question("Caf\u00e9 or th\u00e9 \u2615?", new ArrayList<>(List.of("caf\u00e9", "th\u00e9")), "A", parsed.get(0).getName(), 600));
+        parsed.set(0, new Category(parsed.get(0).getName(), extended));
+        QuestionStore store = new QuestionStore(parsed);
+        ArrayList<Category> stored = store.getCategories();
+
+        assertEquals(parsed.size(), stored.size());
+        for (int i = 0; i < parsed.size(); i++) {
+            assertEquals(parsed.get(i).getName(), stored.get(i).getName());
+            for (int j = 0; j < parsed.get(i).getQuestions().size(); j++) {
+                Question expected = parsed.get(i).getQuestions().get(j);
+                Question actual = stored.get(i).getQuestions().get(j);
+                assertEquals(expected.getValue(), actual.getValue());
+                assertEquals(expected.getQuestionText(), actual.getQuestionText());
+                assertEquals(expected.getChoices(), actual.getChoices());
+                assertEquals(expected.getAnswer(), actual.getAnswer());
+            }
+        }
+        Question cafe = stored.get(0).getQuestions().get(extended.size() - 1);
+        assertTrue("Decoded text should come from the cache", cafe.getQuestionText() == cafe.getQuestionText());
+        assertEquals(2, cafe.getChoices().size());
+        try {
+            cafe.getChoices().add("tea");
+            fail("Stored choices should be read-only");
+        } catch (UnsupportedOperationException e) {
+        }
+        stored.remove(0);
+        assertEquals("Each call should get its own list", parsed.size(), store.getCategories().size());
+    }
+
+    // ==================== LOOKUP INDEX TESTS (2 tests) ====================
+
+    @Test
+    public void testIntHashMapMatchesHashMap() {
+        IntHashMap<String> map = new IntHashMap<>();
+        HashMap<Integer, String> expected = new HashMap<>();
+        Random random = new Random(17);
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextInt(500) * 100;
+            if (random.nextBoolean()) {
+                map.put(key, "v" + i);
+                expected.put(key, "v" + i);
+            } else {
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+            assertEquals(expected.get(key), map.get(key));
+        }
+        assertEquals(expected.size(), map.size());
+        for (int key = 0; key < 50000; key += 100) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+    }
+
+    @Test
+    public void testCategoryValueIndexFollowsReplacements() {
+        ArrayList<String> choices = new ArrayList<>(List.of("a", "b"));
+        Question first = new Question("First", choices, "A", "Loops", 100);
+        Question second = new Question("Second", choices, "A", "Loops", 100);
+        Question other = new Question("Other", choices, "A", "Loops", 200);
+        Category category = new Category("Loops", List.of(first, second, other));
+
+        assertSame(first, category.getQuestionByCategoryAndValue("Loops", 100));
+        Question moved = new Question("Moved", choices, "A", "Loops", 300);
+        Category edited = category.withQuestion(first, moved);
+        assertSame("Next question with the value takes over", second, edited.getQuestionByCategoryAndValue("Loops", 100));
+        assertSame(moved, edited.getQuestionByCategoryAndValue("Loops", 300));
+        assertSame("The original is left as it was", first, category.getQuestionByCategoryAndValue("Loops", 100));
+        assertSame(category, category.withQuestion(moved, first));
+        assertSame(other, edited.getQuestionByCategoryAndValue("Loops", 200));
+        assertEquals(null, category.getQuestionByCategoryAndValue("Arrays", 200));
+    }
+
+    // ==================== GAME BOARD TESTS (3 tests) ====================
+
+    @Test
+    public void testGameBoardTracksAnsweredCells() {
+        ArrayList<Category> categories = csvParser.parse("src/test/java/com/intellectual_systems/resources/questions.csv");
+        GameBoard board = new GameBoard(categories);
+        board.initializeBoard(categories);
+        board.loadQuestions(categories);
+        assertEquals(25, board.cellsRemaining());
+
+        String name = categories.get(3).getName();
+        board.clearCell(name, 300);
+        assertTrue(board.isAnswered(name, 300));
+        assertTrue(!board.isAnswered(board.getColumn(name), board.getRow(200)));
+        assertEquals(24, board.cellsRemaining());
+        assertTrue("Answered cell should render blank", board.renderCategory(name).contains("\n" + " ".repeat(15) + "\n"));
+        assertTrue("Question text should come from the selected category",
+                board.renderQuestionValue(name, 200).contains(categories.get(3).getQuestionByCategoryAndValue(name, 200).getQuestionText()));
+    }
+
+    @Test
+    public void testGameBoardSupportsLargeBoards() {
+        List<Category> categories = new ArrayList<>();
+        for (int c = 0; c < 100; c++) {
+            List<Question> questions = new ArrayList<>();
+            for (int v = 1; v <= 50; v++) {
+                questions.add(new Question("Q", new ArrayList<>(List.of("a")), "A", "C" + c, v * 100));
+            }
+            categories.add(new Category("C" + c, questions));
+        }
+        GameBoard board = new GameBoard(categories);
+        board.initializeBoard(categories);
+        board.loadQuestions(categories);
+        assertEquals(5000, board.cellsRemaining());
+        board.clearCell("C99", 5000);
+        assertTrue(board.isAnswered(99, 49));
+        assertEquals(4999, board.cellsRemaining());
+    }
+
+    @Test
+    public void testGameBoardRenderingIsCachedAndPatched() {
+        ArrayList<Category> categories = csvParser.parse("src/test/java/com/intellectual_systems/resources/questions.csv");
+        GameBoard board = new GameBoard(categories);
+        board.initializeBoard(categories);
+        board.loadQuestions(categories);
+
+        String before = board.renderEntireGameBoard();
+        assertSame("Unchanged board should reuse the rendered frame", before, board.renderEntireGameBoard());
+        board.clearCell(categories.get(0).getName(), 100);
+        String after = board.renderEntireGameBoard();
+        assertEquals(before.length(), after.length());
+        int differences = 0;
+        for (int i = 0; i < before.length(); i++) {
+            if (before.charAt(i) != after.charAt(i)) {
+                differences++;
+            }
+        }
+        assertEquals("Only the cleared label should change", 3, differences);
+    }
+
+    // ==================== SNAPSHOT TESTS (1 test) ====================
+
+    @Test
+    public void testPublishedSnapshotIsUnaffectedByLaterMoves() {
+        ArrayList<Category> categories = csvParser.parse("src/test/java/com/intellectual_systems/resources/questions.csv");
+        GameEngine engine = new GameEngine(null);
+        engine.setQuestionBank(categories);
+        GameBoard board = new GameBoard(categories);
+        board.initializeBoard(categories);
+        board.loadQuestions(categories);
+        engine.setGameBoard(board);
+        Player player = new Player("Alice");
+        engine.setPlayers(new ArrayList<>(List.of(player)));
+        engine.initializeTurnManager();
+
+        engine.publishSnapshot();
+        GameSnapshot before = engine.getSnapshot();
+        board.clearCell(categories.get(0).getName(), 100);
+        player.setScore(100);
+        engine.publishSnapshot();
+        GameSnapshot after = engine.getSnapshot();
+
+        assertEquals(before.getVersion() + 1, after.getVersion());
+        assertTrue(before.isAvailable(0, 0));
+        assertEquals(0, before.getScore(0));
+        assertTrue(!after.isAvailable(0, 0));
+        assertEquals(100, after.getScore(0));
+        assertEquals(24, after.getCellsRemaining());
+        assertEquals("Alice", after.getCurrentPlayer());
+        assertEquals(500, after.getValue(4));
+        assertTrue("Snapshots should share the board layout", board.getLayout() == engine.getSnapshot().getLayout());
+    }
+
+    // ==================== SHARED BANK TESTS (4 tests) ====================
+
+    @Test
+    public void testGamesShareBankAndResetOverlay() {
+        ArrayList<Category> bank = csvParser.parse("src/test/java/com/intellectual_systems/resources/questions.csv");
+        String name = bank.get(0).getName();
+        GameEngine first = new GameEngine(null);
+        GameEngine second = new GameEngine(null);
+        for (GameEngine engine : List.of(first, second)) {
+            engine.setQuestionBank(bank);
+            GameBoard board = new GameBoard(engine.getCategories());
+            board.initializeBoard(engine.getCategories());
+            board.loadQuestions(engine.getCategories());
+            engine.setGameBoard(board);
+        }
+
+        first.getGameBoard().clearCell(name, 100);
+        first.getGameBoard().clearCell(name, 300);
+
+        assertEquals(3, first.getAvailableQuestions(name).size());
+        assertEquals(5, second.getAvailableQuestions(name).size());
+        assertEquals("Answering must not touch the bank", 5, bank.get(0).getQuestions().size());
+        assertSame(bank.get(0), second.getCategoryByName(name));
+
+        first.restartGame();
+        assertEquals(5, first.getAvailableQuestions(name).size());
+        assertEquals(25, first.getGameBoard().cellsRemaining());
+    }
+
+    @Test
+    public void testBoardCanBePlayedToTheEnd() throws IOException {
+        ArrayList<Category> bank = csvParser.parse("src/test/java/com/intellectual_systems/resources/questions.csv");
+        File seen = tempFolder.newFolder("seen");
+        GameEngine engine = new GameEngine(null);
+        engine.setSeenQuestions(new SeenQuestionStore(seen));
+        engine.setQuestionBank(bank);
+        GameBoard board = new GameBoard(engine.getCategories());
+        board.initializeBoard(engine.getCategories());
+        board.loadQuestions(engine.getCategories());
+        engine.setGameBoard(board);
+        engine.setPlayers(new ArrayList<>(List.of(new Player("Alice"), new Player("Bob"))));
+        engine.initializeTurnManager();
+        engine.addGameSummary();
+        GameState[] idle = new GameState[1];
+        idle[0] = new GameState() {
+            @Override
+            public GameState renderNextState() {
+                return idle[0];
+            }
+
+            @Override
+            public void renderCurrentState() {
+            }
+        };
+        engine.setState(idle[0]);
+
+        int turns = 0;
+        while (board.cellsRemaining() > 0) {
+            String name = null;
+            for (Category category : engine.getCategories()) {
+                if (board.hasOpenCells(category.getName())) {
+                    name = category.getName();
+                    break;
+                }
+            }
+            assertNotNull("A category with open cells should be left", name);
+            int value = engine.getAvailableQuestions(name).get(0).getValue();
+            new SelectCategoryCommand(engine, engine.getCategories().indexOf(engine.getCategoryByName(name))).execute();
+            new SelectQuestionCommand(engine, name, 0).execute();
+            new AnswerQuestionCommand(engine, name, value, 'A').execute();
+            new EndTurnCommand(engine).execute();
+            turns++;
+        }
+
+        assertEquals(25, turns);
+        for (Category category : engine.getCategories()) {
+            assertTrue(!board.hasOpenCells(category.getName()));
+            assertTrue(engine.getAvailableQuestions(category.getName()).isEmpty());
+        }
+        assertEquals(25, engine.getGameSummary().getTurns().size());
+
+        assertTrue("Answers should not be saved turn by turn", seen.list().length == 0);
+
+        new UndoTurnCommand(engine).execute();
+        assertEquals("The final answer can still be undone", 1, board.cellsRemaining());
+        engine.recordSeenQuestions();
+        assertEquals("An undone answer is not seen", 24, new SeenQuestionStore(seen).get("Bob").getCardinality());
+        new RedoTurnCommand(engine).execute();
+        assertEquals(0, board.cellsRemaining());
+        engine.recordSeenQuestions();
+        assertEquals(25, new SeenQuestionStore(seen).get("Bob").getCardinality());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testCategoryQuestionsAreReadOnly() {
+        Category category = new Category("Math", List.of(new Question("Q1", new ArrayList<>(List.of("a", "b")), "A", "Math", 100)));
+        category.getQuestions().remove(0);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testQuestionChoicesAreReadOnly() {
+        ArrayList<String> choices = new ArrayList<>(List.of("a", "b"));
+        Question question = new Question("Q1", choices, "A", "Math", 100);
+        choices.add("c");
+        assertEquals("Later changes to the caller's list should not leak in", 2, question.getChoices().size());
+        question.getChoices().set(0, "z");
+    }
+
+    // ==================== HISTORY TESTS (2 tests) ====================
+
+    @Test
+    public void testPersistentBitSetKeepsOldVersions() {
+        Random random = new Random(7);
+        PersistentBitSet set = PersistentBitSet.EMPTY;
+        BitSet expected = new BitSet();
+        List<PersistentBitSet> versions = new ArrayList<>();
+        List<BitSet> expectedVersions = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            int index = random.nextInt(5000);
+            boolean value = random.nextBoolean();
+            set = set.set(index, value);
+            expected.set(index, value);
+            versions.add(set);
+            expectedVersions.add((BitSet) expected.clone());
+        }
+        for (int v = 0; v < versions.size(); v += 50) {
+            assertEquals(expectedVersions.get(v).cardinality(), versions.get(v).cardinality());
+            for (int i = 0; i < 5000; i++) {
+                assertEquals(expectedVersions.get(v).get(i), versions.get(v).get(i));
+            }
+        }
+
+        BitSet changed = (BitSet) expectedVersions.get(100).clone();
+        changed.xor(expectedVersions.get(400));
+        List<Integer> differences = new ArrayList<>();
+        versions.get(100).forEachDifference(versions.get(400), differences::add);
+        assertEquals(changed.stream().boxed().toList(), differences);
+    }
+
+    @Test
+    public void testUndoAndRedoRestoreBoardScoresAndTurns() {
+        ArrayList<Category> categories = csvParser.parse("src/test/java/com/intellectual_systems/resources/questions.csv");
+        String name = categories.get(0).getName();
+        GameEngine engine = new GameEngine(null);
+        engine.setQuestionBank(categories);
+        GameBoard board = new GameBoard(categories);
+        board.initializeBoard(categories);
+        board.loadQuestions(categories);
+        engine.setGameBoard(board);
+        Player alice = new Player("Alice");
+        Player bob = new Player("Bob");
+        engine.setPlayers(new ArrayList<>(List.of(alice, bob)));
+        engine.initializeTurnManager();
+        engine.addGameSummary();
+
+        board.clearCell(name, 100);
+        alice.setScore(100);
+        engine.getGameSummary().addTurn("Alice answered 100");
+        engine.recordTurn(name, 100);
+        engine.getTurnManager().nextTurn();
+        board.clearCell(name, 200);
+        bob.setScore(200);
+        engine.getGameSummary().addTurn("Bob answered 200");
+        engine.recordTurn(name, 200);
+
+        assertTrue(engine.undoTurn());
+        assertTrue(!board.isAnswered(name, 200));
+        assertTrue(board.isAnswered(name, 100));
+        assertEquals(0, bob.getScore());
+        assertEquals(100, alice.getScore());
+        assertEquals(1, engine.getGameSummary().getTurns().size());
+        assertEquals("Alice", engine.getTurnManager().getCurrentTurn().getPlayer().getUsername());
+        assertEquals(24, board.cellsRemaining());
+
+        assertTrue(engine.redoTurn());
+        assertTrue(board.isAnswered(name, 200));
+        assertEquals(200, bob.getScore());
+        assertEquals(List.of("Alice answered 100", "Bob answered 200"), engine.getGameSummary().getTurns().toList());
+        assertTrue(!engine.redoTurn());
+
+        assertTrue(engine.undoTurn());
+        assertTrue(engine.undoTurn());
+        assertTrue(!engine.undoTurn());
+        assertEquals(25, board.cellsRemaining());
+        assertEquals(0, alice.getScore());
+    }
+
+    // ==================== VIEWPORT TESTS (2 tests) ====================
+
+    @Test
+    public void testViewportRendersOnlyVisibleColumns() {
+        ArrayList<Category> categories = new ArrayList<>();
+        for (int c = 0; c < 200; c++) {
+            List<Question> questions = new ArrayList<>();
+            for (int v = 1; v <= 5; v++) {
+                questions.add(new Question("Q", new ArrayList<>(List.of("a")), "A", "Topic" + c, v * 100));
+            }
+            categories.add(new Category("Topic" + c, questions));
+        }
+        GameBoard board = new GameBoard(categories);
+        board.initializeBoard(categories);
+        board.loadQuestions(categories);
+        board.clearCell("Topic9", 300);
+
+        String viewport = board.renderViewport(8, 8);
+        String full = board.renderEntireGameBoard();
+        assertTrue(viewport.contains("Categories 9-16 of 200"));
+        assertTrue(viewport.contains("Topic8") && viewport.contains("Topic15"));
+        assertTrue(!viewport.contains("Topic7 ") && !viewport.contains("Topic16"));
+        assertTrue(viewport.length() * 20 < full.length());
+        assertTrue(viewport.split("\n")[9].split("\\|")[1].trim().isEmpty());
+        assertEquals(full, board.renderViewport(0, 200));
+    }
+
+    @Test
+    public void testPagerClampsAndMoves() {
+        Pager pager = new Pager(8);
+        assertEquals(25, pager.getPageCount(200));
+        assertEquals(0, pager.getFirst(200));
+        assertTrue(!pager.move(-1, 200));
+        assertTrue(pager.move(24, 200));
+        assertEquals(192, pager.getFirst(200));
+        assertEquals(200, pager.getEnd(200));
+        assertTrue(!pager.move(1, 200));
+        assertEquals("Shrinking the list clamps the page", 8, pager.getFirst(10));
+        assertEquals(10, pager.getEnd(10));
+    }
+
+    // ==================== SEEN QUESTIONS TESTS (4 tests) ====================
+
+    @Test
+    public void testRoaringBitmapMatchesHashSetAndRoundTrips() throws IOException {
+        Random random = new Random(11);
+        RoaringBitmap bitmap = new RoaringBitmap();
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < 20000; i++) {
+            // Mix sparse ids with one dense group that turns into a bitmap container
+            int value = i % 2 == 0 ? random.nextInt() : 0x7FFF0000 | random.nextInt(10000);
+            assertEquals(expected.add(value), bitmap.add(value));
+        }
+        assertEquals(expected.size(), bitmap.getCardinality());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bitmap.writeTo(new DataOutputStream(bytes));
+        RoaringBitmap copy = RoaringBitmap.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(expected.size(), copy.getCardinality());
+        for (int value : expected) {
+            assertTrue(copy.contains(value));
+        }
+        for (int i = 0; i < 20000; i++) {
+            int value = random.nextInt();
+            assertEquals(expected.contains(value), copy.contains(value));
+        }
+    }
+
+    @Test
+    public void testSmallRoaringBitmapRoundTripsAcrossArrayLimit() throws IOException {
+        Random random = new Random(5);
+        RoaringBitmap bitmap = new RoaringBitmap();
+        Set<Integer> expected = new HashSet<>();
+        while (expected.size() < RoaringBitmap.ARRAY_LIMIT * 2) {
+            int value = random.nextInt();
+            assertEquals(expected.add(value), bitmap.add(value));
+            if (expected.size() == RoaringBitmap.ARRAY_LIMIT || expected.size() == 3) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                bitmap.writeTo(new DataOutputStream(bytes));
+                RoaringBitmap copy = RoaringBitmap.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+                assertEquals(expected.size(), copy.getCardinality());
+                for (int seen : expected) {
+                    assertTrue(copy.contains(seen));
+                }
+                // A copy read back small must keep growing past the limit
+                for (int i = 0; i < RoaringBitmap.ARRAY_LIMIT; i++) {
+                    copy.add(i);
+                }
+                assertTrue(copy.contains(4095) && copy.contains(value));
+            }
+        }
+        assertEquals(expected.size(), bitmap.getCardinality());
+        for (int i = 0; i < 20000; i++) {
+            int value = random.nextInt();
+            assertEquals(expected.contains(value), bitmap.contains(value));
+        }
+    }
+
+    @Test
+    public void testQuestionIdsStayDistinctWithinLargeCategory() throws IOException {
+        Roaring64Bitmap ids = new Roaring64Bitmap();
+        ArrayList<String> choices = new ArrayList<>(List.of("a", "b"));
+        for (int i = 0; i < 50000; i++) {
+            Question question = new Question("What is item " + i + "?", choices, "A", "Trivia", 100 * (1 + i % 5));
+            assertTrue("Id of question " + i + " should be new", ids.add(QuestionIds.of(question)));
+        }
+        assertEquals(50000, ids.getCardinality());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ids.writeTo(new DataOutputStream(bytes));
+        Roaring64Bitmap copy = Roaring64Bitmap.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(ids.getCardinality(), copy.getCardinality());
+        assertTrue(copy.contains(QuestionIds.of(new Question("What is item 7?", choices, "A", "Trivia", 300))));
+        assertTrue(!copy.contains(QuestionIds.of(new Question("What is item 7?", choices, "A", "Science", 300))));
+    }
+
+    @Test
+    public void testBoardAvoidsQuestionsPlayersHaveSeen() throws IOException {
+        List<Category> pool = new ArrayList<>();
+        for (int c = 0; c < 5; c++) {
+            List<Question> questions = new ArrayList<>();
+            for (int copy = 0; copy < 2; copy++) {
+                for (int value = 100; value <= 500; value += 100) {
+                    questions.add(new Question("Q" + c + "-" + value + "-" + copy, new ArrayList<>(List.of("a", "b")), "A", "Category " + c, value));
+                }
+            }
+            pool.add(new Category("Category " + c, questions));
+        }
+        File directory = tempFolder.newFolder("seen");
+        SeenQuestionStore store = new SeenQuestionStore(directory);
+        BoardBuilder builder = new BoardBuilder(pool);
+        Set<Question> asked = new HashSet<>();
+        for (Category category : builder.build(5, 3L)) {
+            for (Question question : category.getQuestions()) {
+                store.markSeen("Alice", question);
+                asked.add(question);
+            }
+        }
+        store.save("Alice");
+
+        Roaring64Bitmap reloaded = new SeenQuestionStore(directory).get("ALICE");
+        assertEquals(25, reloaded.getCardinality());
+        List<Category> second = builder.build(5, 3L, reloaded::contains);
+        for (Category category : second) {
+            for (Question question : category.getQuestions()) {
+                assertTrue("Should pick the unseen alternative", !asked.contains(question));
+            }
+        }
+    }
+
+    // ==================== GAME LOOP TESTS (1 test) ====================
+
+    @Test
+    public void testRunLoopKeepsStackFlatAndReusesStates() {
+        GameEngine engine = new GameEngine(null);
+        int[] renders = {0};
+        int[] depth = {0};
+        GameState[] state = new GameState[1];
+        state[0] = new GameState() {
+            @Override
+            public GameState renderNextState() {
+                return state[0];
+            }
+
+            @Override
+            public void renderCurrentState() {
+                depth[0] = Math.max(depth[0], Thread.currentThread().getStackTrace().length);
+                if (++renders[0] == 20000) {
+                    engine.stop();
+                } else {
+                    engine.renderNextState();
+                }
+            }
+        };
+        int base = Thread.currentThread().getStackTrace().length;
+        engine.setState(state[0]);
+        engine.run();
+
+        assertEquals(20000, renders[0]);
+        assertTrue("Transitions should not nest", depth[0] < base + 10);
+        assertSame(engine.getState(LoadState.class, LoadState::new), engine.getState(LoadState.class, LoadState::new));
+    }
+
     // ==================== SANITY TEST ====================
     
     @Test